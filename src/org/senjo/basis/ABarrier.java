@@ -8,50 +8,393 @@
 package org.senjo.basis;
 
 import static org.senjo.basis.Helper.unsafe;
+import static org.senjo.basis.Helper.unsafeOffset;
 
-import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
 import org.senjo.annotation.*;
+import org.senjo.support.LogEx;
 
 /** Абстракция для реализации блокировки потоков до наступления определённого события.
  * Сами условия блокировки и разблокировки реализуются в наследнике. Данный класс
  * обеспечивает блокировку, разблокировку по требованию наследника, а также хранение
  * всех заблокированных потоков.
+ * <p/>
+ * Ждущие потоки хранятся в неблокирующем стеке записей {@link Waiter} (стек Трайбера),
+ * вершина которого лежит в единственном поле {@link #target}. Добавление в стек
+ * выполняется одной CAS-операцией без захвата монитора, поэтому одновременно пришедшие
+ * к барьеру потоки не толкаются на SpinLock'е корзинки. Пропуск потоков выполняется
+ * по одному CAS на каждую запись, а пропуск всех разом — забирает весь стек одной
+ * операцией.
+ * <p/>
+ * Вместо потока барьер может ждать задача или future, см. {@link #subscribe(Runnable,
+ * Executor)}: при пропуске задача выполняется, а future завершается.
+ * <p/>
+ * Барьер работает в одном из двух режимов:<ul>
+ * <li>без владельца, {@link #ABarrier()} — условие барьера наследник проверяет без
+ * блокировки, а после регистрации потока в стеке барьер повторно проверяет условие
+ * методом {@link #ready(int)}, чтобы не пропустить сигнал;</li>
+ * <li>с владельцем, {@link #ABarrier(ABasket)} — парковка и распарковка вызываются под
+ * захваченным монитором владельца, на время парковки монитор отпускается.</li></ul>
  * @see Gateway
+ * @see Semaphore
+ * @see Latch
+ * @see CyclicBarrier
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2018-01, change 2019-02-12 */
-@Synchronized abstract class ABarrier extends AdaptDeque<Thread> {
+ * @version create 2018-01, change 2026-10-19 */
+@Synchronized abstract class ABarrier extends ABasketSync {
+	private static final long targetOffset = unsafeOffset(ABarrier.class, "target");
+	private static final long delayedOffset = unsafeOffset(ABarrier.class, "delayed");
+	private static final long watchedOffset = unsafeOffset(ABarrier.class, "watched");
+	/** Вершина стека ждущих потоков: последний пришедший поток. */
+	private volatile Waiter target;
+	/** Задачи и future, пропущенные под монитором, но ещё не выполненные,
+	 * см. {@link #wakeDelayed()}. */
+	private volatile Waiter delayed;
+	/** Счётчики ожидания этого экземпляра; null — экземпляр не отслеживается. Хранятся
+	 * в самом барьере, чтобы парковка не искала их в общей таблице. */
+	private volatile BarrierStats watched;
+	/** Владелец, под монитором которого работает барьер; null — барьер без владельца. */
 	final ABasket owner;
 
-	ABarrier()              { this.owner = this ; }
+	ABarrier()              { this.owner = null ; }
 	ABarrier(ABasket owner) { this.owner = owner; }
 
-/*TODO Разбить метод park на два: сначала регистрация (сохранение потока), потом собственно
- * парковка. Парковка может быть interruptible. Для этого через sun.misc.SharedSecrets
- * из java.nio нужно пробраться к методу Thread#blockedOn(Interruptible), и установить
- * в него себя. В случае прерывания чужим потоком будет вызван метод этого интерфейса
- * и передан поток, который нужно прервать. После штатной разблокировки нужно убрать
- * себя тем же методом, записав null. */
+	/** Условие прохода барьера для режима без владельца. Проверяется после регистрации
+	 * потока в стеке ждущих: если условие уже выполнено, поток уходит не паркуясь.
+	 * @param need — сколько ресурса ждёт поток, передаётся из {@link #park(long, int)}. */
+	@Abstract boolean ready(int need) { return false; }
 
-	@Looper final void park(@NotNull Thread thread, long wakeup) {
+	/** Есть ли в барьере ждущие потоки. Метод приблизительный, т.к. вершиной стека может
+	 * оказаться запись уже ушедшего потока. */
+	final boolean waiting() { return target != null; }
+
+/*   Потоки паркуются через LockSupport, а не напрямую через Unsafe#park: начиная с Java 21
+ * LockSupport снимает виртуальный поток с потока-носителя, а не блокирует носитель вместе
+ * с ним. Заодно барьер виден в дампе потоков как blocker ждущего потока.
+ *   Прерывание потока (Thread#interrupt) само распарковывает запаркованный поток,
+ * поэтому регистрироваться через Thread#blockedOn не нужно. Достаточно после
+ * каждого пробуждения проверить причину: поток пропущен барьером, истёк срок ожидания,
+ * поток прерван или это ложное пробуждение. Если поток уходит не будучи пропущенным,
+ * то он отменяет свою запись, и последующие #unpark(count) её пропускают. Отменённые
+ * записи вычищаются из стека при пропуске потоков и при добавлении новых записей. */
+
+	/** Запарковать текущий поток до пропуска барьером или до наступления срока.
+	 * Ложные пробуждения и прерывания поток переждёт, флаг прерывания будет
+	 * восстановлен при выходе.
+	 * @param wakeup — момент пробуждения по {@link System#currentTimeMillis()};
+	 *        0 — ждать без ограничения по времени.
+	 * @return true — поток пропущен; false — истёк срок. */
+	@Looper final boolean park(long wakeup) {
+		return doPark(wakeup, 1, false) == Released; }
+
+	/** Запарковать текущий поток, аналогичен методу {@link #park(long)}.
+	 * @param need — сколько ресурса ждёт поток, передаётся в {@link #ready(int)}. */
+	@Looper final boolean park(long wakeup, int need) {
+		return doPark(wakeup, need, false) == Released; }
+
+	/** Запарковать текущий поток до пропуска барьером, до наступления срока или до
+	 * прерывания потока. Аналогичен методу {@link #park(long)}.
+	 * @return true — поток пропущен; false — истёк срок.
+	 * @throws InterruptedException — поток был прерван до того, как его пропустили. */
+	@Looper final boolean parkInterruptibly(long wakeup) throws InterruptedException {
+		return parkInterruptibly(wakeup, 1); }
+
+	/** Запарковать текущий поток, аналогичен методу {@link #parkInterruptibly(long)}.
+	 * @param need — сколько ресурса ждёт поток, передаётся в {@link #ready(int)}. */
+	@Looper final boolean parkInterruptibly(long wakeup, int need)
+			throws InterruptedException {
+		int result = doPark(wakeup, need, true);
+		if (result == Interrupted) throw new InterruptedException();
+		return result == Released; }
+
+	@Looper private int doPark(long wakeup, int need, boolean interruptible) {
+		Waiter waiter = new Waiter(Thread.currentThread());
+		if (!BarrierStats.enabled()) return relay(waiter,
+				doPark(waiter, wakeup, need, interruptible));
+		// Счётчики берутся один раз, чтобы вход и уход попали в одни и те же
+		BarrierStats watched = this.watched;
+		BarrierStats.enter(this, watched);
+		long tick = System.nanoTime();
+		int result = Released;
+		try { return result = relay(waiter, doPark(waiter, wakeup, need, interruptible)); }
+		finally { BarrierStats.leave(this, watched, result, System.nanoTime() - tick); } }
+
+	private static int relay(Waiter waiter, int result) {
+		// Пропущенный каскадом поток передаёт пропуск дальше по своей цепочке
+		if (result == Released && waiter.stride != 0) cascade(waiter, waiter.stride);
+		return result; }
+
+	@Looper private int doPark( Waiter waiter, long wakeup, int need,
+			boolean interruptible ) {
 		ABasket owner = this.owner;
-		dequePush(thread);
-		owner.unsync();
-		unsafe.park(true, wakeup);
-		owner.sync();
+		waiter.need = need;
+		enqueue(waiter);
+		// Без владельца условие могло выполниться, пока поток регистрировался
+		if (owner == null && ready(need)) { waiter.cancel(); return Released; }
+		boolean interrupted = false;
+		try { while (true) {
+			if (owner != null) owner.unsync();
+			// Абсолютный срок 0 ядро понимает как уже наступивший, поэтому без срока
+			// паркуемся в относительном режиме
+			if (waiter.waiting())
+				if (wakeup != 0) LockSupport.parkUntil(this, wakeup);
+				else LockSupport.park(this);
+			if (owner != null) owner.sync();
+			// Пропуск важнее прерывания и таймаута, иначе сигнал пропуска потеряется
+			if (!waiter.waiting()) return Released;
+			if (Thread.interrupted())
+				if (interruptible) return leave(waiter, Interrupted);
+				else interrupted = true;
+			if (wakeup != 0 && System.currentTimeMillis() >= wakeup)
+				return leave(waiter, Timeout);
+		} } finally { if (interrupted) waiter.thread.interrupt(); }
 	}
 
-	/**
+	/** Включить счётчики ожидания для этого экземпляра барьера. Счётчики ведутся, только
+	 * пока включён общий сбор {@link BarrierStats#enable(boolean)}.
+	 * @param name — имя для регистрации счётчиков в JMX; null — не регистрировать.
+	 * @return новые счётчики экземпляра; прежние счётчики, если были, отключаются. */
+	public final @NotNull BarrierStats watch(@Nullable String name) {
+		return BarrierStats.watch(this, name); }
+
+	/** Отключить счётчики ожидания этого экземпляра и снять их регистрацию в JMX. */
+	public final void unwatch() { BarrierStats.unwatch(this); }
+
+	/** Счётчики ожидания этого экземпляра; null — экземпляр не отслеживается. */
+	public final @Nullable BarrierStats stats() { return watched; }
+
+	/** Заменить счётчики ожидания этого экземпляра.
+	 * @return прежние счётчики; null — их не было. */
+	final @Nullable BarrierStats watched(@Nullable BarrierStats stats) {
+		return (BarrierStats)unsafe.getAndSetObject(this, watchedOffset, stats); }
+
+	/** Подписать задачу на пропуск барьером вместо парковки потока. Задача хранится
+	 * в том же стеке, что и ждущие потоки, и пропускается наравне с ними. Только для
+	 * режима без владельца: если условие барьера уже выполнено, то задача выполняется
+	 * сразу.
+	 * @param executor — где выполнить задачу; null — в потоке, пропустившем барьер. */
+	final void subscribe(@NotNull Runnable task, @Nullable Executor executor) {
+		subscribe(new Callback(task, executor)); }
+
+	/** Подписать future на пропуск барьером, аналогично {@link #subscribe(Runnable,
+	 * Executor)}. Завершённая или отменённая извне future перестаёт считаться ждущей
+	 * и не съедает пропусков. */
+	final void subscribe(@NotNull CompletableFuture<Void> future) {
+		subscribe(new Promise(future)); }
+
+	private void subscribe(@NotNull Waiter waiter) {
+		enqueue(waiter);
+		if (owner == null && ready(1) && waiter.cancel()) waiter.wake(); }
+
+	/** Уйти из барьера не дождавшись пропуска. Если пропуск всё же успел случиться,
+	 * то он важнее причины ухода. */
+	private int leave(@NotNull Waiter waiter, int reason) {
+		if (!waiter.cancel()) return Released;
+		// Под монитором владельца запись можно сразу убрать из стека
+		if (owner != null) unlink(null, waiter);
+		return reason; }
+
+	/** Распарковать ждущие потоки в порядке их прихода. Частичный пропуск
+	 * (count &gt; 0) должен вызываться под монитором: владельца или самого барьера,
+	 * если владельца нет; после снятия монитора нужно вызвать {@link #wakeDelayed()}.
+	 * Пропуск всех потоков (count = -1) монитора не требует.
 	 * @param count — максимальное число припаркованных здесь потоков, которые нужно
 	 *        распарковать; -1 — распарковать все припаркованные потоки.
 	 * @return возвращает число успешно распаркованных потоков. */
-	@Naive final int unpark(int count) {
-		int result = -1;
-		while (++result != count)
-			try { unsafe.unpark(dequeTake()); }
-			catch (NoSuchElementException ex) { break; }
+	final int unpark(int count) {
+		if (count < 0)
+			return release((Waiter)unsafe.getAndSetObject(this, targetOffset, null));
+		int result = 0;
+		while (result != count) {
+			// Стек хранит последних пришедших сверху, поэтому сначала считаем ждущих,
+			// а затем пропускаем самых старых из них
+			Waiter first = target;
+			int live = 0;
+			for (Waiter node = first; node != null; node = node.next)
+				if (node.waiting()) ++live;
+			if (live == 0) break;
+			int skip = live - (count - result);
+			Waiter prev = null;
+			for (Waiter node = first, next; node != null; node = next) {
+				next = node.next;
+				if (node.waiting())
+					if (skip > 0) --skip;
+					else if (releaseDelayed(node)) ++result;
+				if (node.waiting()) prev = node; else unlink(prev, node); }
+		}
 		return result;
 	}
+
+	/** Распарковать самые давние ждущие потоки, чья потребность умещается в бюджет:
+	 * запись, которой бюджета не хватает, пропускается, но перебор не останавливает.
+	 * Потребность записи — аргумент need парковки, у задач и future она равна 1.
+	 * Вызывается под монитором, как и частичный {@link #unpark(int)}, после снятия
+	 * монитора нужно вызвать {@link #wakeDelayed()}.
+	 * @param budget — сколько ресурса можно раздать ждущим.
+	 * @return число распаркованных записей. */
+	final int unparkFitting(int budget) {
+		if (budget <= 0) return 0;
+		// Ждущие связываются от давних к новым через поле delayed без выделения памяти:
+		// поле занято только у пропущенных записей, а пропуск с отложенным пробуждением
+		// идёт под монитором. Новые записи ложатся выше, проход их не затрагивает
+		Waiter oldest = null;
+		for (Waiter node = target; node != null; node = node.next)
+			if (node.waiting()) { node.delayed = oldest; oldest = node; }
+		int result = 0;
+		for (Waiter node = oldest, next; node != null; node = next) {
+			next = node.delayed; node.delayed = null;
+			if (budget > 0 && node.need <= budget && releaseDelayed(node)) {
+				budget -= node.need; ++result; } }
+		Waiter prev = null;
+		for (Waiter node = target, next; node != null; node = next) {
+			next = node.next;
+			if (node.waiting()) prev = node; else unlink(prev, node); }
+		return result; }
+
+	/** Выполнить задачи и завершить future, пропущенные под монитором. Вызывается после
+	 * снятия монитора частичного пропуска: задача может снова обратиться к барьеру,
+	 * а монитор нереентерабельный. Вызывать можно из любого потока и сколько угодно
+	 * раз: каждую запись забирает ровно один вызов. */
+	final void wakeDelayed() {
+		if (delayed == null) return;
+		for (Waiter node = (Waiter)unsafe.getAndSetObject(this, delayedOffset, null);
+				node != null; node = node.delayed) node.wake(); }
+
+	/** Пропустить запись под монитором. Поток распарковывается сразу, а задача или
+	 * future откладывается до {@link #wakeDelayed()}. */
+	private boolean releaseDelayed(@NotNull Waiter node) {
+		if (!node.pass()) return false;
+		if (node.thread != null) { node.wake(); return true; }
+		Waiter top;
+		do { top = delayed; node.delayed = top;
+		} while (!unsafe.compareAndSwapObject(this, delayedOffset, top, node));
+		return true; }
+
+	/** Распарковать все ждущие потоки каскадом: сразу будятся только первые batch
+	 * записей, а каждый пропущенный поток, уходя из барьера, будит следующего в своей
+	 * цепочке. Так распарковка растягивается на batch параллельных цепочек, и потоки
+	 * не бросаются на процессоры все разом. Записи задач и future цепочку продолжить
+	 * не могут, поэтому за них это делает тот, кто их пропустил. Монитора не требует.
+	 * @param batch — число параллельных цепочек пробуждения, больше нуля.
+	 * @return число ждавших записей на момент пропуска. */
+	final int unparkCascade(int batch) {
+		Waiter first = (Waiter)unsafe.getAndSetObject(this, targetOffset, null);
+		int result = 0;
+		for (Waiter node = first; node != null; node = node.next)
+			if (node.waiting()) ++result;
+		Waiter node = first;
+		for (int index = 0; node != null && index != batch; ++index, node = node.next)
+			cascade(node, batch);
+		return result; }
+
+	/** Пропустить запись цепочки с шагом stride. Если запись уже не ждёт или сама
+	 * не продолжит цепочку, то идём по цепочке дальше сами. Повторные попытки
+	 * пропустить уже пропущенную запись безвредны. */
+	private static void cascade(@Nullable Waiter node, int stride) {
+		while (node != null) {
+			node.stride = stride;
+			if (node.release() && node.thread != null) return;
+			for (int step = 0; node != null && step != stride; ++step) node = node.next; }
+	}
+
+	/** Пропустить все записи отделённого от барьера стека. */
+	private static int release(@Nullable Waiter node) {
+		int result = 0;
+		for (; node != null; node = node.next)
+			if (node.waiting() && node.release()) ++result;
+		return result; }
+
+	/** Добавить запись на вершину стека. Попутно сбрасывает с вершины записи ушедших
+	 * и пропущенных потоков. */
+	private void enqueue(@NotNull Waiter waiter) {
+		Waiter top;
+		do {
+			top = target;
+			Waiter next = top;
+			while (next != null && !next.waiting()) next = next.next;
+			waiter.next = next;
+		} while (!unsafe.compareAndSwapObject(this, targetOffset, top, waiter));
+	}
+
+	/** Убрать запись из стека. Вызывается только под монитором, поэтому внутренние ссылки
+	 * стека меняет только один поток; вершину одновременно могут менять добавляющие
+	 * потоки, поэтому она меняется через CAS.
+	 * @param prev — предыдущая запись, если известна; null — искать от вершины. */
+	private void unlink(@Nullable Waiter prev, @NotNull Waiter node) {
+		Waiter next = node.next;
+		if (prev == null) {
+			if (unsafe.compareAndSwapObject(this, targetOffset, node, next)) return;
+			prev = target;
+			while (prev != null && prev.next != node) prev = prev.next;
+			if (prev == null) return; } // Запись уже убрана или стек забран целиком
+		prev.next = next;
+	}
+
+	static final int Timeout = 0, Released = 1, Interrupted = 2;
+
+	/** Запись о припаркованном потоке. Состояние записи меняется только через CAS: ждёт,
+	 * пропущен или ушёл сам. Кто первый сменил состояние, тот и прав. */
+	static class Waiter {
+		private static final long stateOffset = unsafeOffset(Waiter.class, "state");
+		final Thread thread;
+		volatile Waiter next;
+		/** Шаг каскадной цепочки, по которой нужно передать пропуск; 0 — не каскад.
+		 * Записывается до пропуска записи, поэтому виден пропущенному потоку. */
+		int stride;
+		/** Сколько ресурса ждёт поток, см. {@link ABarrier#unparkFitting(int)}.
+		 * Записывается до добавления записи в стек. */
+		int need = 1;
+		/** Следующая запись в стеке отложенных, см. {@link ABarrier#wakeDelayed()};
+		 * у ждущей — ссылка на более новую, см. {@link ABarrier#unparkFitting}. */
+		Waiter delayed;
+		private volatile int state;
+		Waiter(Thread thread) { this.thread = thread; }
+
+		boolean waiting() { return state == Waiting; }
+
+		/** Пропустить поток; true — поток ещё ждал и теперь распаркован. */
+		final boolean release() {
+			if (!pass()) return false;
+			wake(); return true; }
+
+		/** Отметить запись пропущенной, не будя ждущего; true — запись ещё ждала. */
+		final boolean pass() {
+			return unsafe.compareAndSwapInt(this, stateOffset, Waiting, Passed); }
+
+		/** Разбудить того, кто ждёт по этой записи. */
+		void wake() { LockSupport.unpark(thread); }
+
+		/** Отменить ожидание; true — пропустить поток ещё никто не успел. */
+		final boolean cancel() {
+			return unsafe.compareAndSwapInt(this, stateOffset, Waiting, Cancelled); }
+
+		private static final int Waiting = 0, Passed = 1, Cancelled = 2;
+	}
+
+	/** Запись о задаче, которую нужно выполнить при пропуске вместо распарковки потока.
+	 * Ошибку задачи журналирует, чтобы она не прервала пропуск остальных записей. */
+	private static final class Callback extends Waiter {
+		private final Runnable task;
+		private final Executor executor;
+		Callback(Runnable task, Executor executor) {
+			super(null); this.task = task; this.executor = executor; }
+
+		@Override void wake() { try {
+			if (executor != null) executor.execute(task); else task.run();
+		} catch (Throwable ex) { LogEx.fault("Barrier callback failed", ex); } }
+	}
+
+	/** Запись о future, которую нужно завершить при пропуске. */
+	private static final class Promise extends Waiter {
+		private final CompletableFuture<Void> future;
+		Promise(CompletableFuture<Void> future) { super(null); this.future = future; }
+
+		@Override boolean waiting() { return super.waiting() && !future.isDone(); }
+		@Override void wake() { future.complete(null); }
+	}
 }
 
 
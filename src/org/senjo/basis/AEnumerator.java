@@ -11,6 +11,14 @@ import static org.senjo.basis.Base.*;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.senjo.annotation.Abstract;
 
 /** Класс перечисления значений некоторого множества (полный аналог из C#).
@@ -20,9 +28,20 @@ import org.senjo.annotation.Abstract;
  * к следующему элементу множества и возвращает истину в случае успеха. Остальные
  * getter'ы возвращают значения относящиеся текущему элементу множества. Getter'ы
  * создаются и реализуются в каждом случае свои.
+ * <p/>
+ * Перечислитель также можно обойти потоком {@link #stream()}, в том числе параллельным.
+ * Если наследник знает число элементов {@link #size(int)}, то поток получает точный
+ * размер. Для параллельного обхода наследник может делить работу переопределив
+ * {@link #split()}, гуляющий перечислитель — {@link Walker#fork()}; иначе элементы
+ * раздаются параллельным задачам пачками по мере перебора.
+ * <p/>
+ * Ленивые операторы {@link #map(Function)}, {@link #filter(Predicate)} и др. строят
+ * цепочку перечислителей без промежуточных коллекций и без механизма потоков: каждый
+ * элемент проходит всю цепочку по запросу {@link #next()}. Оператор забирает источник
+ * себе, после его вызова источник напрямую не используется.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2016, change 2018-10-12, fix 2019-01-25, release */
+ * @version create 2016, change 2026-10-19, fix 2019-01-25, release */
 @SuppressWarnings("unchecked")
 public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 	int index = -1;
@@ -58,6 +77,30 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 	 * это значение агрумента. */
 	@Abstract public int size(int fake) { return exist(Finished) ? index : fake; }
 
+	/** Отделить вторую половину ещё не перебранных элементов в новый независимый
+	 * перечислитель, а сам перечислитель сократить до первой половины. Используется для
+	 * деления работы параллельного потока {@link #stream(boolean)}, вызывается только
+	 * когда перечислитель стоит на уже перебранном элементе или перед первым, т.е. первый
+	 * неперебранный элемент имеет индекс {@code index+1}. Размер {@link #size(int)} обеих
+	 * частей должен считаться от их собственного начала.
+	 * @return перечислитель второй половины; null — делить незачем или не умеет,
+	 *         тогда элементы раздаются задачам пачками. */
+	@Abstract protected AEnumerator<T> split() { return null; }
+
+	/** Перейти к следующим элементам пачкой, скопировав их в буфер. Реализация
+	 * по умолчанию перебирает элементы по одному. Наследник с массивом или другим
+	 * индексируемым хранилищем может переопределить метод и копировать элементы разом,
+	 * а затем зафиксировать переход методом {@link #advance(int, int)}; если перечислитель
+	 * в особом состоянии ({@link #fillable()} вернул false), лучше оставить работу базе.
+	 * @param buffer — буфер для элементов, проверен вызывающим;
+	 * @param from — индекс в буфере для первого элемента;
+	 * @param max — сколько элементов нужно, больше нуля.
+	 * @return сколько элементов скопировано; меньше max — элементы закончились. */
+	@Abstract protected int fill(T[] buffer, int from, int max) {
+		int count = 0;
+		while (count != max && _next(false)) buffer[from + count++] = item();
+		return count; }
+
 //^^^^^^^^ Методы для переопределения конечным наследником, реализующим логику ^^^^^^^^^^^//
 //======== Методы, которые может использовать конечный наследник для управления ==========//
 	/** Установить флаг, что текущий элемент последний. Для простого перемещения
@@ -65,6 +108,20 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 	 * не реализовывать проверку на последний элемент и никогда не возвращать false. */
 	protected void setLatest() { push(Last); }
 
+	/** Можно ли в {@link #fill(Object[], int, int)} копировать элементы напрямую начиная
+	 * с индекса {@code index+1}: перечислитель не хранит предпросмотр и не знает, что уже
+	 * стоит на последнем элементе или закончен. */
+	protected final boolean fillable() { return empty(Previewed|Last|Finished); }
+
+	/** Зафиксировать переход на count элементов, которые наследник сам скопировал в пачку
+	 * в методе {@link #fill(Object[], int, int)}. Перечислитель встаёт на последний
+	 * скопированный элемент; если скопировано меньше max, то перебор закончен.
+	 * @return count для удобства возврата из {@link #fill(Object[], int, int)}. */
+	protected final int advance(int count, int max) {
+		index += count;
+		if (count != max) { ++index; push(Finished); }
+		take(Prestart); return count; }
+
 	/** Устанавливает перечислитель пустым, внутренний метод {@link #next(int)} вызываться
 	 * не будет, внешний {@link #next()} сразу вернёт {@code false}. */
 	protected void setEmpty() { push(Previewed|Finished); index = 0; }
@@ -111,6 +168,29 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 	 * существует и переход к нему успешно выполнен. */
 	public final boolean next() { return _next(false); }
 
+	/** Перейти к следующим элементам пачкой, скопировав их в буфер целиком. После вызова
+	 * перечислитель стоит на последнем скопированном элементе.
+	 * @return сколько элементов скопировано; меньше длины буфера — перебор закончен. */
+	public final int nextBatch(T[] buffer) { return nextBatch(buffer, 0, buffer.length); }
+
+	/** Перейти к следующим элементам пачкой, скопировав не больше max элементов в буфер
+	 * начиная с индекса from. Дешевле поэлементного перебора: проверка состояния
+	 * и версии источника выполняется на всю пачку, а перечислители над массивами копируют
+	 * элементы разом.
+	 * @return сколько элементов скопировано; меньше max — перебор закончен. */
+	public final int nextBatch(T[] buffer, int from, int max) {
+		if (from < 0 || max < 0 || from > buffer.length - max)
+			throw new IndexOutOfBoundsException("Wrong batch range " + from + '+' + max
+					+ " for buffer length " + buffer.length);
+		if (max == 0) return 0;
+		if (fillable()) assertVersion();
+		return fill(buffer, from, max); }
+
+	/** Выполнить действие над каждым оставшимся элементом. В отличие от цикла
+	 * {@code for(:)} не создаёт итератор и не выполняет предпросмотр элементов. */
+	public final void forEachRemaining(Consumer<? super T> action) {
+		while (_next(false)) action.accept(item()); }
+
 	/** Создаёт и возвращает ограниченный итератор. Возвращаемый {@link Iterator}
 	 * предназначен только для оператора {code for(:)}! Весь механизм не предназначен
 	 * для работы с текущим элементом между вызовами методов {@link Iterator#hasNext()}
@@ -118,6 +198,68 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 	 * на следующий элемент, после его вызова перечислитель предоставляет новое значение. */
 	@Override public Iterator<T> iterator() { return new InnerIterator<T>(this); }
 
+	/** Создаёт разделитель для обхода оставшихся элементов потоком. Разделитель двигает
+	 * сам перечислитель, поэтому пока идёт обход, перечислитель нельзя использовать
+	 * напрямую. Если число элементов известно, то разделитель имеет точный размер. */
+	@Override public Spliterator<T> spliterator() { return new InnerSpliterator<T>(this); }
+
+	/** Последовательный поток оставшихся элементов перечислителя. */
+	public final Stream<T> stream() { return stream(false); }
+
+	/** Поток оставшихся элементов перечислителя.
+	 * @param parallel — параллельный поток; делит работу согласно {@link #split()}. */
+	public final Stream<T> stream(boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel); }
+
+	/** Лениво преобразовать каждый элемент. Число элементов сохраняется, а гуляющий
+	 * перечислитель остаётся гуляющим. Подряд идущие преобразования сливаются в одно. */
+	public <R> AEnumerator<R> map(Function<? super T, ? extends R> mapper) {
+		return new EnumeratorOperators.Map<T, R>(this, mapper); }
+
+	/** Лениво пропускать только элементы, удовлетворяющие условию. Подряд идущие фильтры
+	 * сливаются в один. */
+	public AEnumerator<T> filter(Predicate<? super T> filter) {
+		return new EnumeratorOperators.Filter<T>(this, filter); }
+
+	/** Перебирать элементы, пока они удовлетворяют условию; на первом неподходящем
+	 * перебор заканчивается. */
+	public AEnumerator<T> takeWhile(Predicate<? super T> filter) {
+		return new EnumeratorOperators.TakeWhile<T>(this, filter); }
+
+	/** Пропустить первые count элементов. */
+	public AEnumerator<T> skip(int count) {
+		if (count < 0) throw Illegal("Skip count can't be negative: " + count);
+		return new EnumeratorOperators.Skip<T>(this, count); }
+
+	/** Перебрать не больше count элементов. */
+	public AEnumerator<T> limit(int count) {
+		if (count < 0) throw Illegal("Limit count can't be negative: " + count);
+		return new EnumeratorOperators.Limit<T>(this, count); }
+
+	/** Заменить каждый элемент перечислителем и перебрать их элементы подряд. */
+	public <R> AEnumerator<R> flatMap(
+			Function<? super T, ? extends AEnumerator<? extends R>> mapper) {
+		return new EnumeratorOperators.FlatMap<T, R>(this, mapper); }
+
+	/** Пропускать повторы элементов по {@link Object#equals(Object)}. Запоминает все
+	 * пропущенные элементы. */
+	public AEnumerator<T> distinct() { return new EnumeratorOperators.Distinct<T>(this); }
+
+	/** Перебирать попарно элементы этого и другого перечислителя, объединяя их функцией.
+	 * Перебор заканчивается, как только закончится любой из двух. */
+	public <U, R> AEnumerator<R> zip(AEnumerator<U> other,
+			BiFunction<? super T, ? super U, ? extends R> zipper) {
+		return new EnumeratorOperators.Zip<T, U, R>(this, other, zipper); }
+
+	/** Число ещё не перебранных элементов; {@link Long#MAX_VALUE} — неизвестно. */
+	final long remain() {
+		int size = size(-1);
+		if (size < 0) return Long.MAX_VALUE;
+		return Math.max(size - consumed(), 0); }
+
+	/** Сколько элементов уже перебрано, с учётом заглянувшего вперёд hasNext(). */
+	final int consumed() { return index + (exist(Previewed) ? 0 : 1); }
+
 	/** Внутренний переход к следующему элементу перечисления. Учитывает возможные заранее
 	 * кешированные состояния, проверяет версию источника. */
 	private final boolean _next(boolean preview) { try {
@@ -171,6 +313,11 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 
 		@Abstract protected int getVersion() { return 0; }
 
+		/** Принять текущую версию источника. Вызывается наследником после того, как он сам
+		 * изменил источник, например в методах {@link Editor}, чтобы перебор продолжился
+		 * без исключения. */
+		protected final void syncVersion() { version = getVersion(); }
+
 //endr Методы для переопределения конечным наследником реализующим логику ^^^^^^^^^^^^//
 
 		@Override final void assertVersion() {
@@ -178,9 +325,17 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 			throw Illegal("Source data has been changed by another"); }
 
 		@Override public final Iterator<T> iterator() {
-			if (iterator != null) iterator.owner = null;
-			if (exist(Finished)) reset();
+			detach();
 			return iterator = (InnerIterator<T>)super.iterator(); }
+
+		@Override public Spliterator<T> spliterator() {
+			detach();
+			return super.spliterator(); }
+
+		/** Аннулировать выданный ранее итератор; если перебор закончен, начать заново. */
+		final void detach() {
+			if (iterator != null) { iterator.owner = null; iterator = null; }
+			if (exist(Finished)) reset(); }
 	}
 
 	/** Гуляющий перечислитель с возможностью свободно перемещаться по элементам источника
@@ -190,17 +345,20 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 		@Override protected boolean next(int baseIndex) { return shift(baseIndex, 1); }
 
 		private final boolean _shift(int count) {
-			return shift(super.index += count, count); }
+			if (!shift(super.index += count, count)) return false;
+			take(Prestart); return true; }
 
 		/** Сместиться на указанное число элементов count. Метод #next() аналогичен вызову
 		 * метода {@code shift(1)}. */
 		public final boolean shift(int count) {
+			boolean between = count < 0 && between();
+			if (between) ++count;
 			if (exist(Previewed)) { --count; take(Previewed); }
 			if (count > 0) { // Движение вперёд
 				if (empty(Last|Finished)) return _shift(count);
 				else if (exist(Last)) { swap(Last, Finished); ++index; return false; }
 				else return false; }
-			if (count < 0) { // Движение назад
+			if (count < 0 || between) { // Движение назад
 				if (-count > index) { _shift(-index-1); return false; }
 				else return _shift(count); }
 			return true;
@@ -209,14 +367,46 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 		/** Встать на элемент с порядковым номером index. */
 		public final boolean seek(int index) {
 			if (index < 0) throw new ArrayIndexOutOfBoundsException(index);
-			return shift(index - super.index);
+			int count = index - super.index;
+			return shift(count <= 0 && between() ? count - 1 : count);
 		}
 
+		/** Перечислитель стоит между элементами, например после удаления текущего
+		 * элемента: index указывает на предыдущий элемент, поэтому шаг назад на единицу
+		 * короче. */
+		private boolean between() { return exist(Prestart) && index >= 0; }
+
 		public final boolean prev() { return shift(-1); }
 
 		@Override public Walker<T> reset() { super.reset(); return this; }
 
-//TODO Хотелось бы сделать ещё Walker<T> clone() { ... }
+		@Override public <R> Walker<R> map(Function<? super T, ? extends R> mapper) {
+			return new EnumeratorOperators.MapWalker<T, R>(this, mapper); }
+
+		@Override public Walker<T> skip(int count) {
+			if (count < 0) throw Illegal("Skip count can't be negative: " + count);
+			return new EnumeratorOperators.RangeWalker<T>(this, count,
+					Integer.MAX_VALUE - count); }
+
+		@Override public Walker<T> limit(int count) {
+			if (count < 0) throw Illegal("Limit count can't be negative: " + count);
+			return new EnumeratorOperators.RangeWalker<T>(this, 0, count); }
+
+		/** Создать новый независимый гуляющий перечислитель над тем же источником данных,
+		 * стоящий перед первым элементом. Если наследник умеет это и знает число элементов,
+		 * то параллельный поток делит работу диапазонами индексов: каждая часть получает
+		 * свой перечислитель и встаёт на начало диапазона методом {@link #seek(int)}. После
+		 * такого обхода позиция исходного перечислителя не определена, его нужно сбросить
+		 * методом {@link #reset()}.
+		 * @return новый перечислитель; null — не умеет. */
+		@Abstract protected Walker<T> fork() { return null; }
+
+		@Override public Spliterator<T> spliterator() {
+			detach();
+			long remain = remain();
+			Walker<T> spare = remain != Long.MAX_VALUE && empty(Previewed) ? fork() : null;
+			if (spare == null) return new InnerSpliterator<T>(this);
+			return new RangeSpliterator<T>(this, spare, index+1, index+1 + (int)remain); }
 	}
 
 	/** Перечислитель с возможностью модифицировать источник данных. */
@@ -229,8 +419,9 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 		public abstract void  append(I item);
 		/** Заменяет текущий элемент на новый. */
 		public abstract void replace(I item);
-		/** Удаляет текущий элемент. Позиция становится неопределённой, как бы между
-		 * элементами. */
+		/** Удаляет текущий элемент. Перечислитель встаёт между соседями удалённого
+		 * элемента: {@link #next()} перейдёт к следующему, {@link #prev()} —
+		 * к предыдущему. */
 		public abstract void remove();
 	}
 
@@ -257,11 +448,28 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 		return new Multiple<T>(values); }
 	private static class Multiple<T> extends AEnumerator<T> {
 		private final T[] items;
-		private Multiple(T ... values) { this.items = values; }
-
-		@Override protected boolean next(int index) { return index != items.length; }
-		@Override public T item() { return items[index()]; }
-		@Override public int size(int fake) { return items.length; }
+		private final int from;
+		private int size;
+		private Multiple(T ... values) { this(values, 0, values.length); }
+		private Multiple(T[] values, int from, int size) {
+			this.items = values; this.from = from; this.size = size; }
+
+		@Override protected boolean next(int index) { return index < size; }
+		@Override public T item() { return items[from + index()]; }
+		@Override public int size(int fake) { return size; }
+
+		@Override protected int fill(T[] buffer, int from, int max) {
+			if (!fillable()) return super.fill(buffer, from, max);
+			int count = Math.max(Math.min(max, size - index - 1), 0);
+			System.arraycopy(items, this.from + index + 1, buffer, from, count);
+			return advance(count, max); }
+
+		@Override protected AEnumerator<T> split() {
+			int first = index + 1, middle = (first + size) >>> 1;
+			if (size - first < 2) return null;
+			AEnumerator<T> result = new Multiple<T>(items, from + middle, size - middle);
+			size = middle;
+			return result; }
 	}
 
 
@@ -277,6 +485,76 @@ public abstract class AEnumerator<T> extends ABasket implements Iterable<T> {
 			if (owner._next(false)) return owner.item();
 			throw new NoSuchElementException(); }
 	}
+
+	/** Разделитель перечислителя для потоков. Делит работу через {@link #split()}, а если
+	 * перечислитель не умеет, то отдаёт параллельным задачам пачки элементов в массивах,
+	 * как это делают разделители обычных итераторов. */
+	private static class InnerSpliterator<T> implements Spliterator<T> {
+		private AEnumerator<T> owner;
+		private final int characteristics;
+		private int batch = 0;
+		InnerSpliterator(AEnumerator<T> owner) {
+			this.owner = owner;
+			characteristics = ORDERED | (owner.size(-1) >= 0 ? SIZED|SUBSIZED : 0); }
+
+		@Override public boolean tryAdvance(Consumer<? super T> action) {
+			if (!owner._next(false)) return false;
+			action.accept(owner.item()); return true; }
+
+		@Override public void forEachRemaining(Consumer<? super T> action) {
+			owner.forEachRemaining(action); }
+
+		@Override public Spliterator<T> trySplit() {
+			AEnumerator<T> owner = this.owner;
+			AEnumerator<T> part = owner.empty(Previewed|Last|Finished)
+					? owner.split() : null;
+			if (part != null) { this.owner = part; return new InnerSpliterator<T>(owner); }
+			// Перечислитель не делится: отдаём пачку, каждую следующую больше предыдущей
+			long remain = owner.remain();
+			int limit = (int)Math.min(Math.min(remain, batch += Batch), MaxBatch);
+			if (limit <= 1) return null;
+			T[] array = (T[])new Object[limit];
+			int count = owner.nextBatch(array, 0, limit);
+			return count == 0 ? null
+					: Spliterators.spliterator(array, 0, count, characteristics|SIZED); }
+
+		@Override public long estimateSize() { return owner.remain(); }
+		@Override public int characteristics() { return characteristics; }
+
+		/** Приращение размера пачки при каждом делении и её предельный размер. */
+		private static final int Batch = 1024, MaxBatch = 1 << 25;
+	}
+
+	/** Разделитель гуляющего перечислителя по диапазону индексов [from, fence). Делится
+	 * пополам: первая половина остаётся за текущим перечислителем, вторая получает новый
+	 * от {@link Walker#fork()}. */
+	private static class RangeSpliterator<T> implements Spliterator<T> {
+		private Walker<T> owner, spare;
+		private int from, fence;
+		RangeSpliterator(Walker<T> owner, Walker<T> spare, int from, int fence) {
+			this.owner = owner; this.spare = spare; this.from = from; this.fence = fence; }
+
+		@Override public boolean tryAdvance(Consumer<? super T> action) {
+			if (from >= fence || !owner.seek(from++)) return false;
+			action.accept(owner.item()); return true; }
+
+		@Override public void forEachRemaining(Consumer<? super T> action) {
+			Walker<T> owner = this.owner;
+			while (from < fence && owner.seek(from++)) action.accept(owner.item()); }
+
+		@Override public Spliterator<T> trySplit() {
+			int middle = (from + fence) >>> 1;
+			if (middle == from) return null;
+			Walker<T> part = spare != null ? spare : owner.fork();
+			if (part == null) return null;
+			spare = null;
+			Spliterator<T> result = new RangeSpliterator<T>(owner, null, from, middle);
+			owner = part; from = middle;
+			return result; }
+
+		@Override public long estimateSize() { return fence - from; }
+		@Override public int characteristics() { return ORDERED|SIZED|SUBSIZED; }
+	}
 }
 
 
@@ -13,6 +13,7 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import org.senjo.annotation.Naive;
 
@@ -23,7 +24,7 @@ import org.senjo.annotation.Naive;
  * в дополнение к корзинке. Также механизм съедает один байт у корзинки.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2018-08, change 2019-02-07 */
+ * @version create 2018-08, change 2026-10-19 */
 @SuppressWarnings("unchecked")
 @Naive public abstract class AdaptDeque<T> extends ABasketSync {
 	private Object target;
@@ -36,7 +37,7 @@ import org.senjo.annotation.Naive;
 	case SingleMode: return 1;
 	case ArrayMode : {
 		int delta = pack(pEnd) - pack(pStart);
-		return delta > 0 ? delta : 8 - delta; }
+		return delta > 0 ? delta : 8 + delta; }
 	case DequeMode : return ((ArrayDeque)target).size();
 	default: throw Illegal(this, mMode); } }
 
@@ -74,7 +75,9 @@ import org.senjo.annotation.Naive;
 				pack(pStart, --start >= 0 ? start : (start = 7));
 				array[start] = item; }
 			break; }
-		case DequeMode: ((ArrayDeque)target).push(item); break; }
+		case DequeMode: { ArrayDeque<T> deque = (ArrayDeque<T>)target;
+			if (forward) deque.offerLast(item); else deque.offerFirst(item);
+			break; } }
 	}
 
 	/** Забрать элемент с начала списка (очередь) */
@@ -123,6 +126,37 @@ import org.senjo.annotation.Naive;
 		default: throw Illegal(this, mMode); }
 	}
 
+	/** Удалить из списка указанный элемент; элементы сравниваются по ссылке.
+	 * @return true — элемент найден и удалён; false — элемента в списке нет. */
+	@Naive protected final boolean dequeRemove(T item) {
+		switch (mask(mMode)) {
+		case EmptyMode : return false;
+		case SingleMode:
+			if (target != item) return false;
+			erase(); return true;
+		case ArrayMode : {
+			T[] array = (T[])target;
+			int start = pack(pStart), end = pack(pEnd), index = start;
+			while (array[index] != item) {
+				if (++index == 8) index = 0;
+				if (index == end) return false; }
+			// Сдвигаем хвост очереди на место удалённого элемента
+			for (int next; (next = index != 7 ? index+1 : 0) != end; index = next)
+				array[index] = array[next];
+			array[index] = null;
+			if (index != start) pack(pEnd, index); else erase();
+			return true; }
+		case DequeMode : {
+			ArrayDeque<T> deque = (ArrayDeque<T>)target;
+			Iterator<T> iterator = deque.iterator();
+			while (iterator.hasNext()) if (iterator.next() == item) {
+				iterator.remove();
+				if (deque.isEmpty()) erase();
+				return true; }
+			return false; }
+		default: throw Illegal(this, mMode); }
+	}
+
 	/** Забрать все элементы списка разом */
 	@Naive protected final Collection<T> dequeScrub() {
 		Collection<T> result;
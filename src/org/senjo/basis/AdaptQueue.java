@@ -0,0 +1,156 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+
+import java.util.concurrent.TimeUnit;
+import org.senjo.annotation.*;
+
+/** Ограниченная блокирующая очередь для передачи элементов между потоками (поставщики
+ * и потребители). Элементы хранятся в подстраивающейся очереди {@link AdaptDeque},
+ * а ожидающие потоки паркуются через {@link ABarrier}. Пока очередь простаивает, она
+ * занимает один небольшой объект без массивов, объектов блокировки и условий,
+ * в отличие от {@link java.util.concurrent.ArrayBlockingQueue} и
+ * {@link java.util.concurrent.LinkedBlockingQueue}. Барьеры для ожидающих потоков
+ * создаются лениво, только когда какому-то потоку действительно приходится ждать.
+ * <p/>
+ * Все операции синхронизируются коротким SpinLock'ом корзинки. Пустые значения
+ * ({@code null}) в очередь класть нельзя, т.к. {@link #poll()} возвращает {@code null}
+ * при отсутствии элементов.
+ * 
+ *  Использование:<pre>
+ * producer: queue.put(item);          // положить, при заполненной очереди ждать места
+ * consumer: item = queue.take();      // забрать, при пустой очереди ждать элемента
+ * consumer: item = queue.poll(50);    // забрать, но ждать не более 50мс
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+@Synchronized public final class AdaptQueue<T> extends AdaptDeque<T> {
+	private final int capacity;
+	/** Барьер поставщиков, ждущих освобождения места в заполненной очереди */
+	private ABarrier producers;
+	/** Барьер потребителей, ждущих появления элемента в пустой очереди */
+	private ABarrier consumers;
+
+	/** @param capacity — максимальное число элементов в очереди, больше нуля. */
+	public AdaptQueue(int capacity) {
+		if (capacity <= 0) throw Illegal("Capacity must be positive: " + capacity);
+		this.capacity = capacity; }
+
+	/** Максимальное число элементов в очереди. */
+	public int capacity() { return capacity; }
+
+	/** Текущее число элементов в очереди. */
+	@Synchronized public int size() { try { sync();
+		return dequeSize();
+	} finally { unsync(); } }
+
+	@Synchronized public boolean isEmpty() { try { sync();
+		return dequeEmpty();
+	} finally { unsync(); } }
+
+	/** Положить элемент в конец очереди. Если очередь заполнена, то поток будет ждать,
+	 * пока в ней не освободится место. */
+	@Synchronized public void put(@NotNull T item) { check(item); try { sync();
+		while (dequeSize() >= capacity) await(producers(), 0);
+		push(item);
+	} finally { unsync(); } }
+
+	/** Положить элемент в конец очереди без ожидания.
+	 * @return true — элемент положен; false — очередь заполнена. */
+	@Synchronized public boolean offer(@NotNull T item) { check(item); try { sync();
+		if (dequeSize() >= capacity) return false;
+		push(item); return true;
+	} finally { unsync(); } }
+
+	/** Положить элемент в конец очереди с таймаутом.
+	 * @return true — элемент положен; false — место в очереди не освободилось за время
+	 *         таймаута. */
+	public boolean offer(@NotNull T item, long await, TimeUnit unit) {
+		return offer(item, unit.toMillis(await)); }
+
+	/** Положить элемент в конец очереди с таймаутом в миллисекундах.
+	 * @return true — элемент положен; false — место в очереди не освободилось за время
+	 *         таймаута. */
+	@Synchronized public boolean offer(@NotNull T item, long millis) {
+		if (millis <= 0) return offer(item);
+		check(item); try { sync();
+		long wakeup = System.currentTimeMillis() + millis;
+		while (dequeSize() >= capacity) if (!await(producers(), wakeup)) return false;
+		push(item); return true;
+	} finally { unsync(); } }
+
+	/** Забрать элемент с начала очереди. Если очередь пуста, то поток будет ждать, пока
+	 * в ней не появится элемент. */
+	@Synchronized public @NotNull T take() { try { sync();
+		while (dequeEmpty()) await(consumers(), 0);
+		return pull();
+	} finally { unsync(); } }
+
+	/** Забрать элемент с начала очереди без ожидания.
+	 * @return элемент очереди или {@code null}, если очередь пуста. */
+	@Synchronized public @Nullable T poll() { try { sync();
+		return dequeEmpty() ? null : pull();
+	} finally { unsync(); } }
+
+	/** Забрать элемент с начала очереди с таймаутом.
+	 * @return элемент очереди или {@code null}, если за время таймаута он не появился. */
+	public @Nullable T poll(long await, TimeUnit unit) {
+		return poll(unit.toMillis(await)); }
+
+	/** Забрать элемент с начала очереди с таймаутом в миллисекундах.
+	 * @return элемент очереди или {@code null}, если за время таймаута он не появился. */
+	@Synchronized public @Nullable T poll(long millis) {
+		if (millis <= 0) return poll();
+		try { sync();
+		long wakeup = System.currentTimeMillis() + millis;
+		while (dequeEmpty()) if (!await(consumers(), wakeup)) return null;
+		return pull();
+	} finally { unsync(); } }
+
+	@Override public String toString() {
+		return Text.hashName(this) + '[' + size() + '/' + capacity + ']'; }
+
+
+
+	private static void check(Object item) {
+		if (item == null) throw new NullPointerException("Queue item can't be null"); }
+
+	@Naive private void push(T item) {
+		dequePush(item);
+		ABarrier consumers = this.consumers;
+		if (consumers != null) consumers.unpark(1); }
+
+	@Naive private T pull() {
+		T result = dequeTake();
+		ABarrier producers = this.producers;
+		if (producers != null) producers.unpark(1);
+		return result; }
+
+	/** Запарковать текущий поток на барьере до пробуждения или до срока wakeup.
+	 * @return false — срок ожидания уже истёк, парковка не выполнялась. */
+	@Naive private boolean await(@NotNull ABarrier barrier, long wakeup) {
+		if (wakeup != 0 && System.currentTimeMillis() >= wakeup) return false;
+		barrier.park(wakeup); return true; }
+
+	@Naive private ABarrier producers() {
+		ABarrier result = producers;
+		return result != null ? result : (producers = new Barrier(this)); }
+
+	@Naive private ABarrier consumers() {
+		ABarrier result = consumers;
+		return result != null ? result : (consumers = new Barrier(this)); }
+
+	/** Барьер ожидающих потоков, синхронизируется монитором самой очереди. */
+	private static final class Barrier extends ABarrier {
+		Barrier(ABasket owner) { super(owner); } }
+}
+
+
@@ -0,0 +1,176 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import org.senjo.annotation.*;
+import org.senjo.support.LogEx;
+
+/** Счётчики ожидания потоков на барьерах ({@link Gateway}, {@link Semaphore},
+ * {@link Latch} и т.д.): сколько потоков ждёт сейчас, сколько прошло, ушло по таймауту
+ * или прерыванию, а также гистограмма времени ожидания по {@link System#nanoTime()}.
+ * <p/>
+ * Счётчики включаются явно: глобально методом {@link #enable(boolean)} или свойством
+ * Java машины {@code -Dorg.senjo.barrier.stats=true}. Пока они выключены, барьер
+ * проверяет только одно статическое поле при парковке, т.е. цена практически нулевая.
+ * Включённые счётчики ведутся по каждому классу барьеров, а по отдельному экземпляру —
+ * только если он подписан методом {@link ABarrier#watch(String)}. Учитываются только
+ * парковки потоков, а не быстрый проход через открытый барьер и не асинхронные подписки.
+ * <p/>
+ * Счётчики доступны снимком {@link #snapshot()} и через JMX: счётчики класса
+ * регистрируются как {@code org.senjo.basis:type=Barrier,class="<полное имя класса>"},
+ * экземпляра — с дополнительным ключом {@code name="<имя>"}.
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, fix 2026-10-19 */
+public final class BarrierStats implements BarrierStatsMXBean {
+	private static volatile boolean enabled = Boolean.getBoolean("org.senjo.barrier.stats");
+	private static final Map<Class<?>, BarrierStats> types =
+			new ConcurrentHashMap<Class<?>, BarrierStats>();
+
+	private final ObjectName name;
+	private final LongAdder waiting = new LongAdder(), passes     = new LongAdder();
+	private final LongAdder timeouts = new LongAdder(), interrupts = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	/** Гистограмма времени ожидания: ячейка i — ожидания от 2^i до 2^(i+1) наносекунд. */
+	private final AtomicLongArray histogram = new AtomicLongArray(Buckets);
+
+	private BarrierStats(@Nullable ObjectName name) { this.name = name; register(); }
+
+	/** Включить или выключить сбор счётчиков для всех барьеров. Уже собранные значения
+	 * сохраняются. */
+	public static void enable(boolean enabled) { BarrierStats.enabled = enabled; }
+
+	public static boolean enabled() { return enabled; }
+
+	/** Счётчики всех барьеров указанного класса, например {@code Gateway.class}. */
+	public static @NotNull BarrierStats of(@NotNull Class<?> type) {
+		BarrierStats result = types.get(type);
+		return result != null ? result
+				: types.computeIfAbsent(type, key -> new BarrierStats(name(key, null))); }
+
+	@Override public long getWaiting   () { return waiting   .sum(); }
+	@Override public long getPasses    () { return passes    .sum(); }
+	@Override public long getTimeouts  () { return timeouts  .sum(); }
+	@Override public long getInterrupts() { return interrupts.sum(); }
+	@Override public long getTotalWaitNanos() { return total.sum(); }
+
+	@Override public long[] getHistogram() {
+		long[] result = new long[Buckets];
+		for (int index = 0; index != Buckets; ++index) result[index] = histogram.get(index);
+		return result; }
+
+	@Override public long getMedianWaitNanos() { return percentile(getHistogram(), 0.5 ); }
+	@Override public long getP99WaitNanos   () { return percentile(getHistogram(), 0.99); }
+
+	/** Снять согласованную копию счётчиков. */
+	public @NotNull Snapshot snapshot() { return new Snapshot(this); }
+
+	@Override public String toString() { return snapshot().toString(); }
+
+
+
+	/** Поток паркуется на барьере. Вызывается только при включённых счётчиках.
+	 * @param watched — счётчики экземпляра, взятые из барьера; null — их нет. */
+	static void enter(@NotNull ABarrier barrier, @Nullable BarrierStats watched) {
+		of(barrier.getClass()).waiting.increment();
+		if (watched != null) watched.waiting.increment(); }
+
+	/** Поток ушёл с барьера по причине result ({@link ABarrier#Released} и т.д.)
+	 * прождав nanos наносекунд.
+	 * @param watched — те же счётчики экземпляра, что были переданы в enter. */
+	static void leave(@NotNull ABarrier barrier, @Nullable BarrierStats watched,
+			int result, long nanos) {
+		of(barrier.getClass()).record(result, nanos);
+		if (watched != null) watched.record(result, nanos); }
+
+	static @NotNull BarrierStats watch(@NotNull ABarrier barrier, @Nullable String name) {
+		BarrierStats result = new BarrierStats(
+				name != null ? name(barrier.getClass(), name) : null);
+		BarrierStats before = barrier.watched(result);
+		if (before != null) before.unregister();
+		return result; }
+
+	static void unwatch(@NotNull ABarrier barrier) {
+		BarrierStats before = barrier.watched(null);
+		if (before != null) before.unregister(); }
+
+	private void record(int result, long nanos) {
+		waiting.decrement();
+		(result == ABarrier.Released ? passes
+				: result == ABarrier.Timeout ? timeouts : interrupts).increment();
+		total.add(nanos);
+		int bucket = 63 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+		histogram.incrementAndGet(Math.min(bucket, Buckets-1)); }
+
+	/** Верхняя граница ячейки гистограммы, в которую попадает доля part ожиданий. */
+	private static long percentile(long[] histogram, double part) {
+		long count = 0, passed = 0;
+		for (long value : histogram) count += value;
+		if (count == 0) return 0;
+		for (int index = 0; index != histogram.length; ++index)
+			if ((passed += histogram[index]) >= count * part) return 2L << index;
+		return Long.MAX_VALUE; }
+
+	private static ObjectName name(Class<?> type, String name) { try {
+		// Полное имя: простые имена разных классов совпадают, а у анонимных они пустые
+		return new ObjectName("org.senjo.basis:type=Barrier,class="
+				+ ObjectName.quote(type.getName())
+				+ (name != null ? ",name=" + ObjectName.quote(name) : ""));
+	} catch (Exception ex) {
+		LogEx.warn("Wrong barrier stats name " + name, ex); return null; } }
+
+	private void register() { if (name != null) try {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+	} catch (Exception ex) { LogEx.warn("Can't register barrier stats " + name, ex); } }
+
+	private void unregister() { if (name != null) try {
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+	} catch (Exception ex) { LogEx.warn("Can't unregister barrier stats " + name, ex); } }
+
+	/** Число ячеек гистограммы: последняя собирает все ожидания от 2^39нс (~9 минут). */
+	private static final int Buckets = 40;
+
+
+
+	/** Неизменяемая копия счётчиков. */
+	public static final class Snapshot implements BarrierStatsMXBean {
+		private final long waiting, passes, timeouts, interrupts, total;
+		private final long[] histogram;
+
+		private Snapshot(BarrierStats stats) {
+			this.histogram  = stats.getHistogram ();
+			this.passes     = stats.getPasses    ();
+			this.timeouts   = stats.getTimeouts  ();
+			this.interrupts = stats.getInterrupts();
+			this.total      = stats.getTotalWaitNanos();
+			this.waiting    = stats.getWaiting   (); }
+
+		@Override public long getWaiting   () { return waiting   ; }
+		@Override public long getPasses    () { return passes    ; }
+		@Override public long getTimeouts  () { return timeouts  ; }
+		@Override public long getInterrupts() { return interrupts; }
+		@Override public long getTotalWaitNanos() { return total; }
+		@Override public long[] getHistogram() { return histogram.clone(); }
+		@Override public long getMedianWaitNanos() { return percentile(histogram, 0.5 ); }
+		@Override public long getP99WaitNanos   () { return percentile(histogram, 0.99); }
+
+		@Override public String toString() {
+			return "waiting=" + waiting + ", passes=" + passes + ", timeouts=" + timeouts
+					+ ", interrupts=" + interrupts + ", median="
+					+ Ticker.toStringEx(getMedianWaitNanos()) + ", p99="
+					+ Ticker.toStringEx(getP99WaitNanos()); }
+	}
+}
+
+
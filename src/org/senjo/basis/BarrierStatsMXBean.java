@@ -0,0 +1,35 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+/** Счётчики ожидания потоков на барьерах в виде MXBean для JMX.
+ * @see BarrierStats
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public interface BarrierStatsMXBean {
+	/** Сколько потоков ждёт на барьере сейчас. */
+	long getWaiting();
+	/** Сколько ждавших потоков прошло через барьер. */
+	long getPasses();
+	/** Сколько потоков ушло по таймауту. */
+	long getTimeouts();
+	/** Сколько потоков ушло по прерыванию. */
+	long getInterrupts();
+	/** Суммарное время ожидания всех ушедших потоков в наносекундах. */
+	long getTotalWaitNanos();
+	/** Гистограмма времени ожидания: ячейка i — от 2^i до 2^(i+1) наносекунд. */
+	long[] getHistogram();
+	/** Медиана времени ожидания, с точностью до ячейки гистограммы. */
+	long getMedianWaitNanos();
+	/** 99-й процентиль времени ожидания, с точностью до ячейки гистограммы. */
+	long getP99WaitNanos();
+}
+
+
+
@@ -0,0 +1,178 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import org.senjo.annotation.*;
+
+/** Потоковый перечислитель лексем из канала байтов в кодировке UTF-8. Лексемы разделены
+ * символом-разделителем, строки — символом {@code '\n'} (завершающий {@code '\r'}
+ * отбрасывается). В режиме {@link #csv(ReadableByteChannel) CSV} поля могут быть взяты
+ * в кавычки, тогда внутри них допускаются разделители и переводы строк, а удвоенная
+ * кавычка означает саму кавычку.
+ * <p/>
+ * Канал читается в один переиспользуемый прямой буфер, байты лексемы за один проход
+ * декодируются в переиспользуемый массив символов, и элемент {@link #item()} — это
+ * переиспользуемое окно {@link CharBuffer} на него. Поэтому перебор не создаёт строк
+ * и вообще не выделяет память, пока лексемы не длиннее уже встреченных. Окно
+ * действительно только до следующего {@link #next()}: если лексему надо сохранить,
+ * то её следует скопировать, например {@code toString()}. По той же причине пачки
+ * {@link #nextBatch(Object[])} и потоки {@link #stream()} без такого копирования
+ * бессмысленны. Некорректные последовательности UTF-8 заменяются символом
+ * {@code '\uFFFD'}.
+ * <p/>
+ * Канал должен быть блокирующим. Ошибка чтения выбрасывается как
+ * {@link UncheckedIOException}.
+ * 
+ *  Использование:<pre>
+ * try (ChannelTokenizer csv = ChannelTokenizer.csv(Files.newByteChannel(path))) {
+ *   while (csv.next()) if (csv.column() == 2) out.append(csv.item()).append('\n'); }
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public final class ChannelTokenizer extends AEnumerator<CharSequence>
+		implements AutoCloseable {
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+	/** Разделитель лексем и кавычка; кавычка 0 — лексемы без кавычек. */
+	private final int delimiter, quote;
+	private boolean eof;
+
+	private char[] chars = new char[64];
+	private CharBuffer text = CharBuffer.wrap(chars);
+	private int length;
+	/** Номер строки и номер лексемы в ней; текущая лексема последняя в своей строке. */
+	private int line = -1, column;
+	private boolean ended = true;
+
+	/** @param delimiter — разделитель лексем, символ ASCII кроме '\n' и '\r';
+	 * @param quote — кавычка, символ ASCII; 0 — лексемы без кавычек;
+	 * @param buffer — размер буфера чтения в байтах. */
+	public ChannelTokenizer(@NotNull ReadableByteChannel channel, char delimiter,
+			char quote, int buffer) {
+		if (delimiter >= 0x80 || delimiter == '\n' || delimiter == '\r'
+				|| quote >= 0x80 || quote == delimiter) throw Illegal(
+				"Wrong delimiter or quote: " + (int)delimiter + ", " + (int)quote);
+		if (buffer <= 0) throw Illegal("Buffer must be positive: " + buffer);
+		this.channel = channel;
+		this.delimiter = delimiter; this.quote = quote;
+		this.buffer = ByteBuffer.allocateDirect(buffer);
+		this.buffer.limit(0); }
+
+	/** Лексемы, разделённые символом delimiter, без кавычек. */
+	public static @NotNull ChannelTokenizer split(@NotNull ReadableByteChannel channel,
+			char delimiter) {
+		return new ChannelTokenizer(channel, delimiter, (char)0, DefaultBuffer); }
+
+	/** Поля CSV, разделённые запятыми. */
+	public static @NotNull ChannelTokenizer csv(@NotNull ReadableByteChannel channel) {
+		return csv(channel, ','); }
+
+	/** Поля CSV, разделённые символом separator, например {@code ';'} или {@code '\t'}. */
+	public static @NotNull ChannelTokenizer csv(@NotNull ReadableByteChannel channel,
+			char separator) {
+		return new ChannelTokenizer(channel, separator, '"', DefaultBuffer); }
+
+	/** Текущая лексема. Окно переиспользуется и действительно до следующего
+	 * {@link #next()}, менять его содержимое нельзя. */
+	@Override public CharBuffer item() { assertItem(); return text; }
+
+	/** Номер строки текущей лексемы, начиная с нуля. Перевод строки внутри кавычек
+	 * номер строки не меняет. */
+	public int line() { assertItem(); return line; }
+
+	/** Номер текущей лексемы в её строке, начиная с нуля. */
+	public int column() { assertItem(); return column; }
+
+	/** Текущая лексема последняя в своей строке. */
+	public boolean isLineEnd() { assertItem(); return ended; }
+
+	/** Закрыть канал. */
+	@Override public void close() throws IOException { channel.close(); }
+
+
+
+	@Override protected boolean next(int index) {
+		int next = read();
+		// Конец канала после конца строки — лексем больше нет, после разделителя — пустая
+		if (next < 0 && ended) return false;
+		if (ended) { ++line; column = 0; } else ++column;
+		length = 0;
+		if (next == quote && quote != 0) next = quoted();
+		int raw = length;
+		while (next >= 0 && next != '\n' && next != delimiter) { put(next); next = read(); }
+		ended = next != delimiter;
+		if (ended && length > raw && chars[length-1] == '\r') --length;
+		text.clear();
+		text.limit(length);
+		return true; }
+
+	/** Дочитать лексему в кавычках.
+	 * @return байт после закрывающей кавычки; -1 — конец канала. */
+	private int quoted() {
+		while (true) {
+			int next = read();
+			if (next < 0) return next;
+			if (next == quote && (next = read()) != quote) return next;
+			put(next); } }
+
+	/** Декодировать символ UTF-8, начатый байтом lead, и добавить его в лексему. */
+	private void put(int lead) {
+		if (length + 2 > chars.length) {
+			chars = Arrays.copyOf(chars, chars.length * 2);
+			text = CharBuffer.wrap(chars); }
+		if (lead < 0x80) { chars[length++] = (char)lead; return; }
+		int tail, code;
+		if      (lead >= 0xF8) { chars[length++] = Wrong; return; }
+		else if (lead >= 0xF0) { tail = 3; code = lead & 0x07; }
+		else if (lead >= 0xE0) { tail = 2; code = lead & 0x0F; }
+		else if (lead >= 0xC0) { tail = 1; code = lead & 0x1F; }
+		else { chars[length++] = Wrong; return; }
+		for (; tail != 0; --tail) {
+			// Продолжение не принадлежит символу — оставляем его следующему символу
+			if (!available() || (buffer.get(buffer.position()) & 0xC0) != 0x80) {
+				chars[length++] = Wrong; return; }
+			code = code << 6 | buffer.get() & 0x3F; }
+		if (code < Character.MIN_SUPPLEMENTARY_CODE_POINT) chars[length++] = (char)code;
+		else if (code <= Character.MAX_CODE_POINT) {
+			chars[length++] = Character.highSurrogate(code);
+			chars[length++] = Character.lowSurrogate (code); }
+		else chars[length++] = Wrong; }
+
+	/** Следующий байт канала; -1 — конец канала. */
+	private int read() { return available() ? buffer.get() & 0xFF : -1; }
+
+	/** В буфере есть непрочитанные байты, при необходимости он дочитывается из канала. */
+	private boolean available() {
+		if (buffer.hasRemaining()) return true;
+		if (eof) return false;
+		buffer.clear();
+		try {
+			int count;
+			do count = channel.read(buffer); while (count == 0);
+			eof = count < 0;
+		} catch (IOException ex) { throw new UncheckedIOException(ex); }
+		finally { buffer.flip(); }
+		return !eof; }
+
+	/** Размер буфера чтения по умолчанию: 64КБ. */
+	public static final int DefaultBuffer = 1 << 16;
+	/** Символ замены некорректной последовательности UTF-8. */
+	private static final char Wrong = '\uFFFD';
+}
+
+
+
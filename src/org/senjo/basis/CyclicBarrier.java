@@ -0,0 +1,137 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+import static org.senjo.basis.Helper.unsafe;
+import static org.senjo.basis.Helper.unsafeOffset;
+
+import java.util.concurrent.TimeUnit;
+import org.senjo.annotation.*;
+
+/** Многоразовый барьер встречи участников. Облегчённый аналог
+ * {@link java.util.concurrent.CyclicBarrier} и {@link java.util.concurrent.Phaser}:
+ * пришедшие участники ждут, пока не соберутся все, затем проходят разом, и барьер сразу
+ * готов к следующему кругу.
+ * <p/>
+ * Число пришедших и номер круга упакованы в одно длинное поле и меняются одной
+ * CAS-операцией, ждущие потоки хранятся в стеке {@link ABarrier}. Барьер занимает один
+ * небольшой объект без AQS, условий и объекта поколения на каждый круг. Номер круга
+ * 32-битный: повторные {@link #arrive()} могут завершить несколько кругов, пока ждущий
+ * поток не проснулся, но за одно ожидание номер не вернётся к прежнему значению.
+ * <p/>
+ * В отличие от {@link java.util.concurrent.CyclicBarrier}, барьер не ломается: участник,
+ * ушедший по таймауту или прерыванию, просто отменяет свой приход, и остальные продолжают
+ * ждать его замену. Действия по завершению круга нет — его выполняет участник, получивший
+ * индекс 0.
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, fix 2026-10-19 */
+@Synchronized public final class CyclicBarrier extends ABarrier {
+	private static final long stateOffset = unsafeOffset(CyclicBarrier.class, "state");
+	private final int parties;
+	/** Номер круга в старших 32 битах, число пришедших в текущем круге — в младших. */
+	private volatile long state;
+
+	/** @param parties — число участников, от 1 до {@link #MaxParties}. */
+	public CyclicBarrier(int parties) {
+		if (parties <= 0 || parties > MaxParties) throw Illegal(
+				"Parties must be in range 1.." + MaxParties + ": " + parties);
+		this.parties = parties; }
+
+	/** Число участников, которые должны собраться для прохода барьера. */
+	@Synchronized public int getParties() { return parties; }
+
+	/** Число участников, которые уже пришли к барьеру в текущем круге. */
+	@Synchronized public int getNumberWaiting() { return (int)state; }
+
+	/** Прийти к барьеру и ждать остальных участников.
+	 * @return индекс прихода: {@code getParties()-1} — первый, 0 — последний участник.
+	 * @throws InterruptedException — поток прерван до завершения круга, его приход
+	 *         отменён. */
+	@Synchronized public int await() throws InterruptedException {
+		if (Thread.interrupted()) throw new InterruptedException();
+		return doAwait(0); }
+
+	/** Прийти к барьеру и ждать остальных участников с таймаутом.
+	 * @return индекс прихода, аналогично {@link #await()}; -1 — истёк таймаут, приход
+	 *         отменён.
+	 * @throws InterruptedException — поток прерван до завершения круга, его приход
+	 *         отменён. */
+	@Synchronized public int await(long await, TimeUnit unit) throws InterruptedException {
+		if (Thread.interrupted()) throw new InterruptedException();
+		long millis = Math.max(unit.toMillis(await), 1);
+		return doAwait(System.currentTimeMillis() + millis); }
+
+	/** Прийти к барьеру и ждать остальных участников. Прерывание потока не прекращает
+	 * ожидание, но флаг прерывания сохраняется.
+	 * @return индекс прихода, аналогично {@link #await()}. */
+	@Synchronized public int awaitUninterruptibly() {
+		long arrival = doArrive();
+		int result = (int)arrival, round = (int)(arrival >>> 32);
+		if (result != 0) do park(0, round); while (!ready(round));
+		return result; }
+
+	/** Прийти к барьеру не дожидаясь остальных участников. Если пришедший последний, то
+	 * круг завершается и ждущие потоки пропускаются.
+	 * @return индекс прихода, аналогично {@link #await()}. */
+	@Synchronized public int arrive() { return (int)doArrive(); }
+
+	@Override public String toString() {
+		return Text.hashName(this) + '[' + getNumberWaiting() + '/' + getParties() + ']'; }
+
+
+
+	/** Отметить приход участника одной CAS-операцией.
+	 * @return номер круга, в котором участник пришёл, в старших 32 битах и индекс
+	 *         прихода в младших. */
+	private long doArrive() {
+		while (true) {
+			long state = this.state;
+			int arrived = (int)state + 1;
+			long round = state & Round;
+			long update = arrived != parties ? state + 1 : round + OneRound;
+			if (unsafe.compareAndSwapLong(this, stateOffset, state, update)) {
+				if (arrived == parties) unpark(-1);
+				return round | parties - arrived; } } }
+
+	@Looper private int doAwait(long wakeup) throws InterruptedException {
+		long arrival = doArrive();
+		int result = (int)arrival, round = (int)(arrival >>> 32);
+		if (result == 0) return 0;
+		boolean passed;
+		try {
+			do passed = parkInterruptibly(wakeup, round); while (passed && !ready(round));
+		} catch (InterruptedException ex) {
+			if (withdraw(round)) throw ex;
+			// Круг успел завершиться, участник прошёл; прерывание оставляем на потом
+			Thread.currentThread().interrupt();
+			return result; }
+		return passed || !withdraw(round) ? result : -1; }
+
+	/** Отменить приход участника, если его круг ещё не завершился.
+	 * @return true — приход отменён; false — круг уже завершён, участник прошёл. */
+	private boolean withdraw(int round) {
+		while (true) {
+			long state = this.state;
+			if ((int)(state >>> 32) != round) return false;
+			if (unsafe.compareAndSwapLong(this, stateOffset, state, state - 1))
+				return true; } }
+
+	/** Круг, в котором поток пришёл к барьеру, уже завершён. Проверяется и после
+	 * пропуска: завершивший круг поток забирает стек ждущих не сразу после смены круга,
+	 * и за это время участник, ушедший по этой проверке, может прийти в следующий круг
+	 * и встать в стек. Такой пропуск не его, и участник паркуется снова.
+	 * @param round — номер круга прихода. */
+	@Override boolean ready(int round) { return (int)(state >>> 32) != round; }
+
+	/** Маска номера круга и его приращение. */
+	private static final long Round = 0xFFFFFFFF00000000L, OneRound = 1L << 32;
+	/** Максимальное число участников барьера. */
+	public  static final int MaxParties = (1<<15) - 1;
+}
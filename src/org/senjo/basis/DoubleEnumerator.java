@@ -0,0 +1,137 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/** Перечислитель чисел с плавающей точкой без упаковки в {@link Double}. Примитивный собрат
+ * {@link AEnumerator}: интерфейс описывает перечисление с доступом к текущему
+ * элементу {@link #doubleItem()}, а базы для реализаций повторяют устройство
+ * {@link AEnumerator}: {@link Plain}, {@link Reliable} с проверкой версии источника,
+ * {@link Walker} со свободным перемещением {@link AEnumerator.Walker#seek(int) seek}
+ * и {@link AEnumerator.Walker#shift(int) shift}, {@link Editor} с изменением источника.
+ * Индексы, состояние и проверки берутся из {@link AEnumerator}, а упакованный
+ * {@link AEnumerator#item()} остаётся для совместимости и упаковывает элемент при каждом
+ * вызове.
+ * <p/>
+ * Элементы можно получать пачками {@link #nextBatch(double[])}, обходить через
+ * {@link PrimitiveIterator.OfDouble} или потоком {@link DoubleStream}.
+ * 
+ *  Использование:<pre>
+ * DoubleEnumerator ids = DoubleEnumerator.of(0.5, 1.5, 2.5);
+ * while (ids.next()) total += ids.doubleItem();
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public interface DoubleEnumerator {
+	/** Перейти к следующему элементу, см. {@link AEnumerator#next()}. */
+	boolean next();
+
+	/** Текущая позиция перечислителя, см. {@link AEnumerator#index()}. */
+	int index();
+
+	/** Количество элементов или fake, если оно неизвестно, см.
+	 * {@link AEnumerator#size(int)}. */
+	int size(int fake);
+
+	/** Текущий элемент перечисляемого источника без упаковки. */
+	double doubleItem();
+
+	/** Перейти к следующим элементам пачкой, скопировав их в буфер целиком.
+	 * @return сколько элементов скопировано; меньше длины буфера — перебор закончен. */
+	default int nextBatch(double[] buffer) { return nextBatch(buffer, 0, buffer.length); }
+
+	/** Перейти к следующим элементам пачкой, скопировав не больше max элементов в буфер
+	 * начиная с индекса from. Реализация по умолчанию перебирает элементы по одному,
+	 * перечислители над массивами копируют их разом, см.
+	 * {@link AEnumerator#fill(Object[], int, int)}.
+	 * @return сколько элементов скопировано; меньше max — перебор закончен. */
+	default int nextBatch(double[] buffer, int from, int max) {
+		PrimitiveEnumerators.check(buffer.length, from, max);
+		int count = 0;
+		while (count != max && next()) buffer[from + count++] = doubleItem();
+		return count; }
+
+	/** Выполнить действие над каждым оставшимся элементом без упаковки. */
+	default void forEachDouble(DoubleConsumer action) {
+		while (next()) action.accept(doubleItem()); }
+
+	/** Итератор оставшихся элементов без упаковки. Как и итератор {@link AEnumerator},
+	 * метод {@code hasNext()} уже переводит перечислитель на следующий элемент. */
+	default PrimitiveIterator.OfDouble doubleIterator() {
+		return new PrimitiveEnumerators.DoubleIterator(this); }
+
+	/** Разделитель оставшихся элементов для потоков. Если число элементов известно, то
+	 * разделитель имеет точный размер; параллельным задачам элементы раздаются пачками
+	 * {@link #nextBatch(double[], int, int)}. */
+	default Spliterator.OfDouble doubleSpliterator() {
+		return new PrimitiveEnumerators.DoubleSpliterator(this); }
+
+	/** Последовательный поток оставшихся элементов без упаковки. */
+	default DoubleStream doubleStream() { return doubleStream(false); }
+
+	/** Поток оставшихся элементов без упаковки.
+	 * @param parallel — параллельный поток. */
+	default DoubleStream doubleStream(boolean parallel) {
+		return StreamSupport.doubleStream(doubleSpliterator(), parallel); }
+
+	/** Гуляющий перечислитель над массивом; массив не копируется. */
+	static Walker of(double ... values) {
+		return new PrimitiveEnumerators.DoubleArray(values); }
+
+
+
+	/** База простого перечислителя, аналог {@link AEnumerator}. */
+	abstract class Plain extends AEnumerator<Double>
+			implements DoubleEnumerator {
+		@Override public final Double item() { return doubleItem(); }
+	}
+
+	/** База надёжного перечислителя, аналог {@link AEnumerator.Reliable}. */
+	abstract class Reliable extends AEnumerator.Reliable<Double>
+			implements DoubleEnumerator {
+		protected Reliable() { }
+		protected Reliable(int version) { super(version); }
+
+		@Override public final Double item() { return doubleItem(); }
+		@Override public DoubleEnumerator.Reliable reset() { super.reset(); return this; }
+	}
+
+	/** База гуляющего перечислителя, аналог {@link AEnumerator.Walker}. */
+	abstract class Walker extends AEnumerator.Walker<Double>
+			implements DoubleEnumerator {
+		@Override public final Double item() { return doubleItem(); }
+		@Override public DoubleEnumerator.Walker reset() { super.reset(); return this; }
+	}
+
+	/** База изменяющего перечислителя, аналог {@link AEnumerator.Editor}. Упакованные
+	 * методы изменения распаковывают элемент и вызывают примитивные. */
+	abstract class Editor extends AEnumerator.Editor<Double, Double>
+			implements DoubleEnumerator {
+		@Override public final Double item() { return doubleItem(); }
+
+		/** Вставляет новый элемент перед текущим элементом. */
+		public abstract void prepend(double item);
+		/** Вставляет новый элемент после текущего элемента. */
+		public abstract void  append(double item);
+		/** Заменяет текущий элемент на новый. */
+		public abstract void replace(double item);
+
+		@Override public final void prepend(Double item) { prepend(item.doubleValue()); }
+		@Override public final void  append(Double item) {  append(item.doubleValue()); }
+		@Override public final void replace(Double item) { replace(item.doubleValue()); }
+	}
+}
+
+
+
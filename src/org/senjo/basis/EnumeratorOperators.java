@@ -0,0 +1,243 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.util.HashSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/** Внутренние реализации ленивых операторов {@link AEnumerator}: {@link AEnumerator#map
+ * map}, {@link AEnumerator#filter filter} и др. Каждый оператор — это перечислитель,
+ * который по {@link AEnumerator#next(int)} берёт элементы источника по одному, без
+ * промежуточных коллекций. Соседние {@code map} и {@code filter} сливаются в одно звено,
+ * если звено ещё не начало перебор. Операторы над {@link AEnumerator.Walker}, которые
+ * сохраняют соответствие индексов ({@code map}, {@code skip}, {@code limit}), остаются
+ * гуляющими и перемещаются по источнику через {@link AEnumerator.Walker#seek(int)}.
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, fix 2026-10-19 */
+final class EnumeratorOperators {
+	private EnumeratorOperators() { }
+
+	/** Звено ещё не начало перебор, его можно заменить слитым звеном. */
+	private static boolean fresh(AEnumerator<?> stage) {
+		return stage.exist(AEnumerator.Prestart) && stage.empty(AEnumerator.Previewed); }
+
+	private static int sum(int size, int delta) {
+		return size < 0 ? size : Math.max(size + delta, 0); }
+
+	/** Сколько элементов источника осталось с момента создания звена: звено перебирает
+	 * источник с той позиции, где он стоял, а не с начала.
+	 * @param consumed — сколько элементов источника было перебрано до создания звена.
+	 * @return fake — размер источника неизвестен. */
+	private static int rest(AEnumerator<?> source, int consumed, int fake) {
+		int size = source.size(-1);
+		return size < 0 ? fake : Math.max(size - consumed, 0); }
+
+
+
+//======== Sequential : операторы последовательных перечислителей ========================//
+	static final class Map<T, R> extends AEnumerator<R> {
+		private final AEnumerator<T> source;
+		private final Function<? super T, ? extends R> mapper;
+		private final int consumed;
+		private R item;
+		Map(AEnumerator<T> source, Function<? super T, ? extends R> mapper) {
+			this.source = source; this.mapper = mapper; consumed = source.consumed(); }
+
+		@Override protected boolean next(int index) {
+			if (!source.next()) return false;
+			item = mapper.apply(source.item()); return true; }
+		@Override public R item() { return item; }
+		@Override public int size(int fake) { return rest(source, consumed, fake); }
+
+		@Override public <V> AEnumerator<V> map(Function<? super R, ? extends V> mapper) {
+			if (!fresh(this)) return super.map(mapper);
+			Function<? super T, ? extends R> first = this.mapper;
+			return new Map<T, V>(source, item -> mapper.apply(first.apply(item))); }
+	}
+
+	static final class Filter<T> extends AEnumerator<T> {
+		private final AEnumerator<T> source;
+		private final Predicate<? super T> filter;
+		private T item;
+		Filter(AEnumerator<T> source, Predicate<? super T> filter) {
+			this.source = source; this.filter = filter; }
+
+		@Override protected boolean next(int index) {
+			while (source.next()) if (filter.test(item = source.item())) return true;
+			item = null; return false; }
+		@Override public T item() { return item; }
+
+		@Override public AEnumerator<T> filter(Predicate<? super T> filter) {
+			if (!fresh(this)) return super.filter(filter);
+			Predicate<? super T> first = this.filter;
+			return new Filter<T>(source, item -> first.test(item) && filter.test(item)); }
+	}
+
+	static final class TakeWhile<T> extends AEnumerator<T> {
+		private final AEnumerator<T> source;
+		private final Predicate<? super T> filter;
+		private T item;
+		TakeWhile(AEnumerator<T> source, Predicate<? super T> filter) {
+			this.source = source; this.filter = filter; }
+
+		@Override protected boolean next(int index) {
+			if (source.next() && filter.test(item = source.item())) return true;
+			item = null; return false; }
+		@Override public T item() { return item; }
+	}
+
+	static final class Skip<T> extends AEnumerator<T> {
+		private final AEnumerator<T> source;
+		private final int count, consumed;
+		Skip(AEnumerator<T> source, int count) {
+			this.source = source; this.count = count; consumed = source.consumed(); }
+
+		@Override protected boolean next(int index) {
+			if (index == 0) for (int skip = count; skip != 0; --skip)
+				if (!source.next()) return false;
+			return source.next(); }
+		@Override public T item() { return source.item(); }
+		@Override public int size(int fake) {
+			int size = rest(source, consumed, -1);
+			return size < 0 ? fake : sum(size, -count); }
+	}
+
+	static final class Limit<T> extends AEnumerator<T> {
+		private final AEnumerator<T> source;
+		private final int count, consumed;
+		Limit(AEnumerator<T> source, int count) {
+			this.source = source; this.count = count; consumed = source.consumed(); }
+
+		@Override protected boolean next(int index) {
+			return index < count && source.next(); }
+		@Override public T item() { return source.item(); }
+		@Override public int size(int fake) {
+			int size = rest(source, consumed, -1);
+			return size < 0 ? fake : Math.min(size, count); }
+	}
+
+	static final class FlatMap<T, R> extends AEnumerator<R> {
+		private final AEnumerator<T> source;
+		private final Function<? super T, ? extends AEnumerator<? extends R>> mapper;
+		private AEnumerator<? extends R> inner;
+		FlatMap(AEnumerator<T> source,
+				Function<? super T, ? extends AEnumerator<? extends R>> mapper) {
+			this.source = source; this.mapper = mapper; }
+
+		@Override protected boolean next(int index) {
+			while (inner == null || !inner.next()) {
+				if (!source.next()) { inner = null; return false; }
+				inner = mapper.apply(source.item()); }
+			return true; }
+		@Override public R item() { return inner != null ? inner.item() : null; }
+	}
+
+	static final class Distinct<T> extends AEnumerator<T> {
+		private final AEnumerator<T> source;
+		private final HashSet<T> passed = new HashSet<T>();
+		private T item;
+		Distinct(AEnumerator<T> source) { this.source = source; }
+
+		@Override protected boolean next(int index) {
+			while (source.next()) if (passed.add(item = source.item())) return true;
+			item = null; return false; }
+		@Override public T item() { return item; }
+	}
+
+	static final class Zip<T, U, R> extends AEnumerator<R> {
+		private final AEnumerator<T> first;
+		private final AEnumerator<U> second;
+		private final BiFunction<? super T, ? super U, ? extends R> zipper;
+		private final int firstConsumed, secondConsumed;
+		private R item;
+		Zip(AEnumerator<T> first, AEnumerator<U> second,
+				BiFunction<? super T, ? super U, ? extends R> zipper) {
+			this.first = first; this.second = second; this.zipper = zipper;
+			firstConsumed = first.consumed(); secondConsumed = second.consumed(); }
+
+		@Override protected boolean next(int index) {
+			if (!first.next() || !second.next()) { item = null; return false; }
+			item = zipper.apply(first.item(), second.item()); return true; }
+		@Override public R item() { return item; }
+		@Override public int size(int fake) {
+			int first  = rest(this.first , firstConsumed , -1);
+			int second = rest(this.second, secondConsumed, -1);
+			return first < 0 || second < 0 ? fake : Math.min(first, second); }
+	}
+
+
+
+//======== Walkers : операторы гуляющих перечислителей ===================================//
+	/** Гуляющее звено: индекс звена отображается на индекс источника со сдвигом offset
+	 * и ограничением fence. Перебор вперёд идёт через next источника, переходы — через
+	 * seek источника. */
+	static abstract class Stage<T, R> extends AEnumerator.Walker<R> {
+		final AEnumerator.Walker<T> source;
+		final int offset, fence;
+		Stage(AEnumerator.Walker<T> source, int offset, int fence) {
+			this.source = source; this.offset = offset; this.fence = fence; }
+
+		@Override protected boolean shift(int index, int count) {
+			return index >= 0 && index < fence && source.seek(index + offset) && moved(); }
+
+		/** Источник встал на новый элемент; звено может подготовить свой элемент. */
+		boolean moved() { return true; }
+
+		@Override public int size(int fake) {
+			int size = source.size(-1);
+			return size < 0 ? fake : Math.max(Math.min(size - offset, fence), 0); }
+
+		@Override public AEnumerator.Walker<R> reset() {
+			source.reset(); super.reset(); return this; }
+	}
+
+	static final class MapWalker<T, R> extends Stage<T, R> {
+		private final Function<? super T, ? extends R> mapper;
+		private R item;
+		MapWalker(AEnumerator.Walker<T> source, Function<? super T, ? extends R> mapper) {
+			super(source, 0, Integer.MAX_VALUE); this.mapper = mapper; }
+
+		@Override boolean moved() { item = mapper.apply(source.item()); return true; }
+		@Override public R item() { return item; }
+
+		@Override protected AEnumerator.Walker<R> fork() {
+			AEnumerator.Walker<T> source = this.source.fork();
+			return source != null ? new MapWalker<T, R>(source, mapper) : null; }
+
+		@Override public <V> AEnumerator.Walker<V> map(
+				Function<? super R, ? extends V> mapper) {
+			if (!fresh(this)) return super.map(mapper);
+			Function<? super T, ? extends R> first = this.mapper;
+			return new MapWalker<T, V>(source, item -> mapper.apply(first.apply(item))); }
+	}
+
+	static final class RangeWalker<T> extends Stage<T, T> {
+		RangeWalker(AEnumerator.Walker<T> source, int offset, int fence) {
+			super(source, offset, fence); }
+
+		@Override public T item() { return source.item(); }
+
+		@Override protected AEnumerator.Walker<T> fork() {
+			AEnumerator.Walker<T> source = this.source.fork();
+			return source != null ? new RangeWalker<T>(source, offset, fence) : null; }
+
+		@Override public AEnumerator.Walker<T> skip(int count) {
+			if (!fresh(this) || count > fence) return super.skip(count);
+			return new RangeWalker<T>(source, offset + count, fence - count); }
+
+		@Override public AEnumerator.Walker<T> limit(int count) {
+			if (!fresh(this)) return super.limit(count);
+			return new RangeWalker<T>(source, offset, Math.min(fence, count)); }
+	}
+}
+
+
+
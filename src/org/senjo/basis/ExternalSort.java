@@ -0,0 +1,304 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.senjo.annotation.*;
+import org.senjo.support.LogEx;
+
+/** Внешняя сортировка перечислителей, которые не помещаются в память. Источник читается
+ * пачками по budget элементов, каждая пачка сортируется параллельно на всех ядрах
+ * ({@link Arrays#parallelSort(Object[], Comparator)}) и сбрасывается во временный файл
+ * в компактном двоичном виде, который задаёт {@link Codec}. Результат — перечислитель,
+ * сливающий отсортированные файлы через двоичную кучу: O(log k) сравнений на элемент
+ * для k файлов. Если источник уместился в одну пачку, то файлы не создаются вовсе.
+ * Сортировка устойчивая: равные элементы идут в порядке источника.
+ * <p/>
+ * Файл пачки открывается только при первом чтении из него. Одновременно сливается
+ * не больше {@link #FanIn} файлов: если пачек больше, то они заранее сливаются группами
+ * в промежуточные файлы, пока их не останется не больше FanIn.
+ * <p/>
+ * Слияние уже отсортированных перечислителей без файлов доступно отдельно:
+ * {@link #merge(Comparator, AEnumerator...)}.
+ * <p/>
+ * Временные файлы удаляются по мере исчерпания, а при досрочном прекращении перебора —
+ * методом {@link Merge#close()}. Ошибка ввода-вывода при переборе выбрасывается как
+ * {@link UncheckedIOException}.
+ * 
+ *  Использование:<pre>
+ * ExternalSort&lt;Deal&gt; sort = new ExternalSort&lt;&gt;(byTime, codec, 1 &lt;&lt; 20);
+ * try (ExternalSort.Merge&lt;Deal&gt; deals = sort.sort(source)) {
+ *   for (Deal deal : deals) report(deal); }
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, fix 2026-10-19 */
+@SuppressWarnings("unchecked")
+public final class ExternalSort<T> {
+	private final Comparator<? super T> comparator;
+	private final Codec<T> codec;
+	private final int budget;
+	private final Path directory;
+
+	/** @param budget — сколько элементов держать в памяти: размер сортируемой пачки. */
+	public ExternalSort(@NotNull Comparator<? super T> comparator, @NotNull Codec<T> codec,
+			int budget) {
+		this(comparator, codec, budget, null); }
+
+	/** @param budget — сколько элементов держать в памяти: размер сортируемой пачки;
+	 * @param directory — каталог временных файлов; null — системный каталог. */
+	public ExternalSort(@NotNull Comparator<? super T> comparator, @NotNull Codec<T> codec,
+			int budget, @Nullable Path directory) {
+		if (budget < 2) throw Illegal("Budget must be at least 2: " + budget);
+		this.comparator = comparator; this.codec = codec;
+		this.budget = budget; this.directory = directory; }
+
+	/** Отсортировать оставшиеся элементы источника. Источник перебирается до конца сразу,
+	 * а если он {@link AutoCloseable}, то закрывается.
+	 * @throws IOException — не удалось записать временный файл; уже записанные файлы
+	 *         удаляются. */
+	public @NotNull Merge<T> sort(@NotNull AEnumerator<T> source) throws IOException {
+		List<AEnumerator<T>> runs = new ArrayList<AEnumerator<T>>();
+		try {
+			T[] batch = (T[])new Object[budget];
+			while (true) {
+				int count = source.nextBatch(batch);
+				if (count == 0) break;
+				Arrays.parallelSort(batch, 0, count, comparator);
+				if (count < budget && runs.isEmpty()) {
+					// Всё уместилось в память, файлы не нужны
+					runs.add(AEnumerator.makeMultiple(Arrays.copyOf(batch, count)));
+					break; }
+				runs.add(spill(batch, count));
+				if (count < budget) break; }
+		} catch (IOException|RuntimeException|Error ex) {
+			for (AEnumerator<T> run : runs) close(run);
+			throw ex;
+		} finally { if (source instanceof AutoCloseable) close(source); }
+		return new Merge<T>(comparator, array(reduce(runs))); }
+
+	/** Слить уже отсортированные перечислители в один. Равные элементы идут в порядке
+	 * перечислителей в аргументах. Источники, которые {@link AutoCloseable}, закрываются
+	 * методом {@link Merge#close()}. */
+	@SafeVarargs
+	public static @NotNull <T> Merge<T> merge(@NotNull Comparator<? super T> comparator,
+			@NotNull AEnumerator<T>... sources) {
+		AEnumerator<T>[] copy = array(sources.length);
+		// Поэлементно: передача самого массива аргументов дальше — повод для [varargs]
+		for (int index = 0; index != copy.length; ++index) copy[index] = sources[index];
+		return new Merge<T>(comparator, copy); }
+
+
+
+	/** Слить пачки группами по {@link #FanIn} в промежуточные файлы, пока их
+	 * не останется не больше FanIn. Группы идут подряд, поэтому слияние остаётся
+	 * устойчивым. При ошибке закрываются все пачки, и старые, и новые. */
+	private List<AEnumerator<T>> reduce(List<AEnumerator<T>> runs) throws IOException {
+		while (runs.size() > FanIn) {
+			List<AEnumerator<T>> reduced = new ArrayList<AEnumerator<T>>(
+					(runs.size() + FanIn - 1) / FanIn);
+			int from = 0;
+			try {
+				for (; from < runs.size(); from += FanIn) {
+					List<AEnumerator<T>> group = runs.subList(from,
+							Math.min(from + FanIn, runs.size()));
+					reduced.add(group.size() == 1 ? group.get(0)
+							: spill(new Merge<T>(comparator, array(group)))); }
+			} catch (IOException|RuntimeException|Error ex) {
+				for (AEnumerator<T> run : reduced) close(run);
+				for (int index = from; index < runs.size(); ++index) close(runs.get(index));
+				throw ex; }
+			runs = reduced; }
+		return runs; }
+
+	/** Записать отсортированную пачку во временный файл. */
+	private Run<T> spill(T[] batch, int count) throws IOException {
+		Path file = createFile();
+		try (DataOutputStream out = output(file)) {
+			for (int index = 0; index != count; ++index) {
+				codec.write(batch[index], out);
+				batch[index] = null; }
+		} catch (IOException|RuntimeException|Error ex) {
+			Files.deleteIfExists(file); throw ex; }
+		return new Run<T>(file, codec, count); }
+
+	/** Записать слияние группы пачек в промежуточный файл; пачки группы закрываются. */
+	private Run<T> spill(Merge<T> group) throws IOException {
+		Path file = createFile();
+		int count = 0;
+		try (Merge<T> source = group; DataOutputStream out = output(file)) {
+			while (source.next()) { codec.write(source.item(), out); ++count; }
+		} catch (UncheckedIOException ex) {
+			Files.deleteIfExists(file); throw ex.getCause();
+		} catch (IOException|RuntimeException|Error ex) {
+			Files.deleteIfExists(file); throw ex; }
+		return new Run<T>(file, codec, count); }
+
+	private Path createFile() throws IOException {
+		return directory != null ? Files.createTempFile(directory, "sort", ".run")
+				: Files.createTempFile("sort", ".run"); }
+
+	private static DataOutputStream output(Path file) throws IOException {
+		return new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(file), Buffer)); }
+
+	/** Массив источников для слияния из списка. */
+	private static <T> AEnumerator<T>[] array(List<AEnumerator<T>> runs) {
+		return runs.toArray(array(runs.size())); }
+
+	/** Массив обобщённого типа иначе как через сырой тип не создать. */
+	private static <T> AEnumerator<T>[] array(int length) {
+		@SuppressWarnings("rawtypes") AEnumerator<T>[] result = new AEnumerator[length];
+		return result; }
+
+	private static void close(Object source) {
+		if (source instanceof AutoCloseable) try { ((AutoCloseable)source).close(); }
+		catch (Exception ex) { LogEx.warn("Can't close sort source", ex); } }
+
+	/** Размер буфера чтения и записи временного файла. */
+	private static final int Buffer = 1 << 16;
+	/** Сколько файлов пачек сливается и держится открытыми одновременно. */
+	public static final int FanIn = 64;
+
+
+
+	/** Двоичное представление элемента во временном файле. Формат произвольный, лишь
+	 * бы {@link #read(DataInput)} читал ровно то, что записал
+	 * {@link #write(Object, DataOutput)}. Реализация не должна хранить состояние между
+	 * элементами. */
+	public interface Codec<T> {
+		void write(T item, DataOutput out) throws IOException;
+		T read(DataInput in) throws IOException;
+	}
+
+	/** Перечислитель отсортированной пачки во временном файле. Файл открывается при
+	 * первом чтении и удаляется, когда пачка исчерпана, чтение не удалось или
+	 * перечислитель закрыт. */
+	private static final class Run<T> extends AEnumerator<T> implements AutoCloseable {
+		private final Codec<T> codec;
+		private final int size;
+		/** Файл пачки; null — файл уже удалён. */
+		private Path file;
+		private DataInputStream in;
+		private int remain;
+		private T item;
+
+		Run(Path file, Codec<T> codec, int size) {
+			this.file = file; this.codec = codec; this.remain = this.size = size; }
+
+		@Override public T item() { return item; }
+
+		@Override public int size(int fake) { return size; }
+
+		@Override protected boolean next(int index) {
+			if (remain == 0) { item = null; close(); return false; }
+			try {
+				if (in == null) in = new DataInputStream(new BufferedInputStream(
+						Files.newInputStream(file), Buffer));
+				item = codec.read(in); --remain; return true;
+			} catch (IOException ex) { close(); throw new UncheckedIOException(ex); } }
+
+		@Override public void close() {
+			if (file == null) return;
+			try { if (in != null) in.close(); }
+			catch (IOException ex) { LogEx.warn("Can't close sort run " + file, ex); }
+			try { Files.deleteIfExists(file); }
+			catch (IOException ex) { LogEx.warn("Can't delete sort run " + file, ex); }
+			file = null; in = null; remain = 0; }
+	}
+
+	/** Перечислитель k-путевого слияния отсортированных источников через двоичную кучу.
+	 * Вершина кучи — источник с наименьшим текущим элементом, при равенстве — с меньшим
+	 * номером, поэтому слияние устойчивое. */
+	public static final class Merge<T> extends AEnumerator<T> implements AutoCloseable {
+		private final Comparator<? super T> comparator;
+		private final AEnumerator<T>[] sources;
+		/** Текущие элементы источников и куча номеров источников. */
+		private final T[] heads;
+		private final int[] heap;
+		/** Сколько элементов осталось в источниках на момент создания; -1 — неизвестно. */
+		private final int size;
+		private int count = -1;
+
+		Merge(Comparator<? super T> comparator, AEnumerator<T>[] sources) {
+			this.comparator = comparator; this.sources = sources;
+			this.heads = (T[])new Object[sources.length];
+			this.heap = new int[sources.length];
+			this.size = remain(sources); }
+
+		@Override public T item() { return heads[heap[0]]; }
+
+		@Override public int size(int fake) { return size >= 0 ? size : super.size(fake); }
+
+		/** Сумма ещё не перебранных элементов источников, они могли быть уже начаты. */
+		private static int remain(AEnumerator<?>[] sources) {
+			long result = 0;
+			for (AEnumerator<?> source : sources) {
+				long remain = source.remain();
+				if (remain == Long.MAX_VALUE) return -1;
+				result += remain; }
+			return (int)Math.min(result, Integer.MAX_VALUE); }
+
+		/** Закрыть источники и удалить оставшиеся временные файлы. */
+		@Override public void close() {
+			for (AEnumerator<T> source : sources) ExternalSort.close(source); }
+
+		@Override protected boolean next(int index) {
+			if (count < 0) { // Первый шаг: собрать кучу из первых элементов источников
+				count = 0;
+				for (int source = 0; source != sources.length; ++source)
+					if (sources[source].next()) {
+						heads[source] = sources[source].item();
+						heap[count++] = source; }
+				for (int place = count/2 - 1; place >= 0; --place) down(place);
+				return count != 0; }
+			if (count == 0) return false;
+			int top = heap[0];
+			if (sources[top].next()) heads[top] = sources[top].item();
+			else {
+				heads[top] = null;
+				if (--count == 0) return false;
+				heap[0] = heap[count]; }
+			down(0);
+			return true; }
+
+		/** Просеять источник в позиции place вниз по куче. */
+		private void down(int place) {
+			int source = heap[place];
+			while (true) {
+				int child = place * 2 + 1;
+				if (child >= count) break;
+				if (child + 1 < count && less(heap[child + 1], heap[child])) ++child;
+				if (!less(heap[child], source)) break;
+				heap[place] = heap[child];
+				place = child; }
+			heap[place] = source; }
+
+		private boolean less(int left, int right) {
+			int result = comparator.compare(heads[left], heads[right]);
+			return result < 0 || result == 0 && left < right; }
+	}
+}
+
+
+
@@ -0,0 +1,124 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import org.senjo.annotation.*;
+
+/** Форматирование чисел и времени прямо в {@link StringBuilder} без промежуточных строк,
+ * массивов и объектов формата. Методы статические и не хранят состояния, поэтому
+ * потокобезопасны, в отличие от общего {@link java.text.DecimalFormat}. Вывод совпадает
+ * с прежними реализациями {@link Ticker} и {@link Text} символ в символ.
+ * <p/>
+ * Каждый метод дописывает текст в конец out и возвращает out для цепочки вызовов. Если
+ * у out хватает ёмкости, то форматирование не выделяет памяти вовсе.
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public final class Formats {
+	private Formats() { }
+
+	/** Промежуток времени в миллисекундах вида {@code "(1,234.57ms)"}: как формат
+	 * {@code "(#,##0.00ms)"} над {@code nano / 1000000f} с округлением до чётного. */
+	public static @NotNull StringBuilder tick(@NotNull StringBuilder out, long nano) {
+		float millis = nano / 1000000f;
+		if (millis < 0) out.append('-');
+		long hundredths = hundredths(Math.abs(millis));
+		group(out.append('('), hundredths / 100, ',');
+		out.append('.').append((char)('0' + hundredths / 10 % 10));
+		return out.append((char)('0' + hundredths % 10)).append("ms)"); }
+
+	/** Целое число с разделителем separator между тройками цифр, например
+	 * {@code "-1,234,567"}. */
+	public static @NotNull StringBuilder group(@NotNull StringBuilder out, long value,
+			char separator) {
+		// Считаем в отрицательных числах, чтобы не терять Long.MIN_VALUE
+		if (value < 0) out.append('-'); else value = -value;
+		long divisor = 1;
+		int count = 1;
+		while (value / divisor <= -10) { divisor *= 10; ++count; }
+		for (; divisor != 0; divisor /= 10, --count) {
+			out.append((char)('0' - value / divisor % 10));
+			if (count % 3 == 1 && count != 1) out.append(separator); }
+		return out; }
+
+	/** Короткое число ровно в пять символов с приставкой СИ, как {@link
+	 * Text#shortNumber(long)}: {@code "  999 "}, {@code "1.23k"}, {@code "45.6M"};
+	 * отрицательное — {@code " ??? "}. */
+	public static @NotNull StringBuilder shortNumber(@NotNull StringBuilder out,
+			long value) {
+		if (value < 0) return out.append(" ??? ");
+		int charCount = 0;
+		long l_value = value;
+		while (l_value != 0) { l_value /= 10; charCount++; }
+
+		l_value = value;
+		int start = out.length(), index = 4;
+		out.setLength(start + 5);
+		out.setCharAt(start + index, ShortMarks[(charCount-1) / 3]);
+		if (charCount <= 3) {
+			do {
+				out.setCharAt(start + --index, (char)('0' + l_value % 10));
+				l_value /= 10;
+			} while (l_value != 0);
+			while (--index >= 0) out.setCharAt(start + index, ' ');
+		} else {
+			for (int i = charCount - 4; i >= 0; i--) l_value /= 10;
+			int point = (charCount-1) % 3 + 1;
+			while (--index >= 0) if (point != index) {
+				out.setCharAt(start + index, (char)('0' + l_value % 10));
+				l_value /= 10;
+			} else out.setCharAt(start + index, '.');
+		}
+		return out; }
+
+	/** Текст, выровненный в области длиной length, как
+	 * {@link Text#align(String, int, boolean, float, char)}. */
+	public static @NotNull StringBuilder align(@NotNull StringBuilder out,
+			@NotNull CharSequence text, int length, boolean crop, float align, char space) {
+		int textLength = text.length();
+		if (textLength == length || !crop && length < textLength) return out.append(text);
+
+		int left = (int)((length - textLength) * align), right = left+textLength;
+		if (left <= 0 && length <= right) return out.append(text, -left, -left + length);
+
+		for (int index = 0; index < length; index++)
+			out.append(left <= index && index < right ? text.charAt(index - left) : space);
+		return out; }
+
+	/** Заполнить область длиной length символом space. */
+	public static @NotNull StringBuilder fill(@NotNull StringBuilder out, int length,
+			char space) {
+		while (--length >= 0) out.append(space);
+		return out; }
+
+
+
+	/** Неотрицательное число, умноженное на 100 и точно округлённое до целого
+	 * с округлением половины до чётного. Вычисляется по двоичному представлению числа,
+	 * как округляет {@link java.text.DecimalFormat}. */
+	private static long hundredths(float value) {
+		int bits = Float.floatToRawIntBits(value);
+		int exponent = bits >>> 23 & 0xFF;
+		long mantissa = bits & 0x7FFFFF;
+		if (exponent == 0) exponent = 1; else mantissa |= 1 << 23;
+		// value = mantissa * 2^shift; mantissa*100 < 2^31, а сдвиг влево не переполнит
+		// long для любых наносекунд в long: value < 2^44
+		long scaled = mantissa * 100;
+		int shift = exponent - 150;
+		if (shift >= 0) return scaled << shift;
+		if (shift < -40) return 0; // Меньше половины сотой
+		long result = scaled >> -shift, remain = scaled - (result << -shift);
+		long half = 1L << -shift-1;
+		if (remain > half || remain == half && (result & 1) != 0) ++result;
+		return result; }
+
+	private static final char[] ShortMarks = { ' ','k','M','G','T','P','E','Z','Y' };
+}
+
+
+
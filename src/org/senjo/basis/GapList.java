@@ -0,0 +1,180 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import org.senjo.annotation.*;
+
+/** Список на буфере с разрывом (gap buffer). Элементы хранятся в одном массиве, а свободное
+ * место собрано в один разрыв, который переезжает к месту вставки или удаления. Поэтому
+ * серия правок рядом с одним местом, например курсором редактора, стоит O(1) в среднем:
+ * переносится только то, что лежит между старым и новым местом разрыва. Доступ по индексу
+ * — O(1), как у {@link java.util.ArrayList}.
+ * <p/>
+ * Метод {@link #editor()} возвращает перечислитель {@link AEnumerator.Editor}, который
+ * свободно гуляет по списку и правит его в позиции курсора. Свои правки он принимает,
+ * а изменение списка в обход него, как и у всех надёжных перечислителей, приведёт
+ * к исключению при продолжении перебора. Список не потокобезопасный.
+ * 
+ *  Использование:<pre>
+ * GapList&lt;Line&gt; lines = new GapList&lt;&gt;(source);
+ * GapList&lt;Line&gt;.Cursor editor = lines.editor();
+ * while (editor.next()) if (editor.item().isBlank()) editor.remove();
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+@SuppressWarnings("unchecked")
+public class GapList<E> extends AbstractList<E> implements RandomAccess {
+	private Object[] items;
+	/** Разрыв занимает ячейки массива с start включительно до end исключительно. */
+	private int start, end;
+
+	public GapList() { this(DefaultCapacity); }
+
+	public GapList(int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException(
+				"Capacity can't be negative: " + capacity);
+		items = new Object[capacity];
+		end = capacity; }
+
+	public GapList(@NotNull Collection<? extends E> source) {
+		Object[] values = source.toArray();
+		items = Arrays.copyOf(values, Math.max(values.length * 3 / 2, DefaultCapacity),
+				Object[].class);
+		start = values.length;
+		end = items.length; }
+
+	@Override public int size() { return items.length - end + start; }
+
+	@Override public E get(int index) {
+		check(index, size());
+		return (E)items[index < start ? index : index + end - start]; }
+
+	@Override public E set(int index, E item) {
+		check(index, size());
+		int place = index < start ? index : index + end - start;
+		E result = (E)items[place];
+		items[place] = item;
+		return result; }
+
+	@Override public void add(int index, E item) {
+		check(index, size() + 1);
+		if (start == end) grow();
+		move(index);
+		items[start++] = item;
+		++modCount; }
+
+	@Override public E remove(int index) {
+		check(index, size());
+		move(index);
+		E result = (E)items[end];
+		items[end++] = null;
+		++modCount;
+		return result; }
+
+	@Override public void clear() {
+		Arrays.fill(items, 0, start, null);
+		Arrays.fill(items, end, items.length, null);
+		start = 0; end = items.length;
+		++modCount; }
+
+	/** Гуляющий перечислитель, правящий список в позиции курсора. */
+	public @NotNull Cursor editor() { return new Cursor(); }
+
+
+
+	/** Переместить разрыв так, чтобы он начинался с логического индекса index. */
+	private void move(int index) {
+		if (index < start) {
+			int count = start - index;
+			System.arraycopy(items, index, items, end - count, count);
+			Arrays.fill(items, index, Math.min(start, end - count), null);
+			start = index; end -= count;
+		} else if (index > start) {
+			int count = index - start;
+			System.arraycopy(items, end, items, start, count);
+			Arrays.fill(items, Math.max(end, index), end + count, null);
+			start = index; end += count; } }
+
+	/** Расширить массив в полтора раза, отдав новое место разрыву. */
+	private void grow() {
+		int length = items.length;
+		int capacity = Math.max(length + (length >> 1), DefaultCapacity);
+		Object[] result = new Object[capacity];
+		System.arraycopy(items, 0, result, 0, start);
+		int tail = length - end;
+		System.arraycopy(items, end, result, capacity - tail, tail);
+		items = result; end = capacity - tail; }
+
+	private void check(int index, int limit) {
+		if (index < 0 || index >= limit) throw new IndexOutOfBoundsException(
+				"Index: " + index + ", size: " + size()); }
+
+	private static final int DefaultCapacity = 16;
+
+
+
+	/** Гуляющий перечислитель списка с правкой в позиции курсора. Переход к любому
+	 * элементу — O(1), правка рядом с предыдущей — O(1) в среднем. */
+	public final class Cursor extends AEnumerator.Editor<E, E> {
+		private Cursor() { syncVersion(); }
+
+		@Override public E item() { assertItem(); return get(index); }
+
+		@Override public int size(int fake) { return GapList.this.size(); }
+
+		@Override public Cursor reset() { super.reset(); return this; }
+
+		@Override public void prepend(E item) {
+			assertItem(); assertVersion();
+			add(index++, item);
+			syncVersion(); }
+
+		@Override public void append(E item) {
+			assertItem(); assertVersion();
+			add(index + 1, item);
+			syncVersion(); }
+
+		@Override public void replace(E item) {
+			assertItem(); assertVersion();
+			set(index, item); }
+
+		/** Удаляет текущий элемент. Перечислитель встаёт между соседями: {@link #next()}
+		 * перейдёт к следующему за удалённым элементу, {@link #prev()} — к предыдущему. */
+		@Override public void remove() {
+			assertItem(); assertVersion();
+			GapList.this.remove(index--);
+			push(Prestart);
+			syncVersion(); }
+
+		@Override protected int getVersion() { return modCount; }
+
+		@Override protected boolean shift(int index, int count) {
+			return index >= 0 && index < GapList.this.size(); }
+
+		@Override protected int fill(E[] buffer, int from, int max) {
+			if (!fillable()) return super.fill(buffer, from, max);
+			int first = index + 1;
+			int count = Math.max(Math.min(max, GapList.this.size() - first), 0);
+			// Копируем части до разрыва и после него
+			int head = Math.max(Math.min(start - first, count), 0);
+			System.arraycopy(items, first, buffer, from, head);
+			System.arraycopy(items, first + head + end - start, buffer, from + head,
+					count - head);
+			return advance(count, max); }
+
+		@Override protected Cursor fork() { return new Cursor(); }
+	}
+}
+
+
+
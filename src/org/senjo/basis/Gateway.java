@@ -7,8 +7,11 @@
  */
 package org.senjo.basis;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import org.senjo.annotation.Synchronized;
+import org.senjo.annotation.*;
 
 /** Затвор для потоков. Позволяет закрывать и открывать абстрактный затвор, тем самым
  * пропуская или временно приостанавливая до открытия исполнительные потоки (threads).
@@ -21,18 +24,30 @@ import org.senjo.annotation.Synchronized;
  * thread2: gateway.join();  // поток 2, замораживается войдя в шлюз и ждёт сигнала
  * control: gateway.open();  // открыть шлюз, остановленные потоки 1 и 2 продолжат работу
  * </pre>
+ * Асинхронный код вместо join() использует {@link #joinAsync()} или
+ * {@link #onOpen(Runnable, Executor)}, которые ждут открытия затвора без блокировки
+ * потока.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2018-01, change 2019-03-01 */
+ * @version create 2018-01, change 2026-10-19 */
 @Synchronized public final class Gateway extends ABarrier {
 	public Gateway(boolean opened) { if (opened) push(Opened); }
 
+	/** Затвор с каскадным пробуждением. При открытии сразу будятся не все ждущие потоки,
+	 * а только первые batch, и каждый пропущенный поток будит следующего. Это сглаживает
+	 * всплеск нагрузки, когда открывается затвор с тысячами ждущих потоков.
+	 * @param batch — число потоков, пробуждаемых сразу, от 1 до {@link #MaxBatch};
+	 *        {@link #AutoBatch} — по числу доступных процессоров на момент открытия;
+	 *        0 — будить все потоки разом, как {@link #Gateway(boolean)}. */
+	public Gateway(boolean opened, int batch) {
+		if (batch != AutoBatch && (batch < 0 || batch > MaxBatch)) throw Base.Illegal(
+				"Cascade batch must be in range 0.." + MaxBatch + ": " + batch);
+		basket = (opened ? Opened : 0) | (batch == AutoBatch ? mBatch : batch << Shift); }
+
 	/** Открыть затвор. Все приостановленные потоки будут пропущены, все приходящие будут
 	 * пропускаться без задержки.
 	 * @return число потоков, которые ждали и теперь прошли через затвор */
-	@Synchronized public int open() { try { sync();
-		return push(Opened) ? unpark(-1) : 0;
-	} finally { unsync(); } }
+	@Synchronized public int open() { return pushSync(Opened) ? release() : 0; }
 
 	/** Закрыть затвор. Все приходящие потоки будут задерживаться, пока затвор не будет
 	 * вновь открыть. */
@@ -51,16 +66,27 @@ import org.senjo.annotation.Synchronized;
 	 * @param count — число потоков, которое следует пропустить через закрытый затвор;
 	 *        -1 — пропустить через затвор все ждущие потоки.
 	 * @return число потоков прошедших через затвор. */
-	@Synchronized public int pass(int count) { try { sync();
-		return exist(Opened) ? 0 : unpark(count);
-	} finally { unsync(); } }
+	@Synchronized public int pass(int count) {
+		if (count < 0) return existSync(Opened) ? 0 : release();
+		int result;
+		try { sync();
+			result = exist(Opened) ? 0 : unpark(count);
+		} finally { unsync(); }
+		// Задачи и future выполняются вне монитора: они могут снова обратиться к затвору
+		wakeDelayed();
+		return result; }
+
+	/** Пройти через затвор. Поток выйдет из этого метода только если затвор открыт,
+	 * когда он откроется или когда его пропустят методом {@link #pass(int)}. Прерывание
+	 * потока не прекращает ожидание, но флаг прерывания сохраняется. */
+	@Synchronized public void join() { if (!existSync(Opened)) park(0); }
 
-	/** Пройти через затвор. Поток выйдет из этого метода только если затвор открыт
-	 * или когда он откроется. */
-	@Synchronized public void join() { try { sync();
-		if (exist(Opened)) return;
-		park(Thread.currentThread(), 0);
-	} finally { unsync(); } }
+	/** Пройти через затвор. Аналогичен методу {@link #join()}, но ожидание прекращается
+	 * прерыванием потока.
+	 * @throws InterruptedException — поток прерван до прохода через затвор. */
+	@Synchronized public void joinInterruptibly() throws InterruptedException {
+		if (Thread.interrupted()) throw new InterruptedException();
+		if (!existSync(Opened)) parkInterruptibly(0); }
 
 	/** Пройти через затвор с таймаутом. Поток выйдет из этого метода если затвор открыт,
 	 * когда он откроется или по указанному таймауту с результатом false. */
@@ -69,15 +95,67 @@ import org.senjo.annotation.Synchronized;
 
 	/** Пройти через затвор с таймаутом. Поток выйдет из этого метода если затвор открыт,
 	 * когда он откроется или по указанному таймауту с результатом false. */
-	@Synchronized public boolean join(long millis) { try { sync();
-		if (exist(Opened)) return true;
-		if (millis <= 0) return false;
-		long wakeup = System.currentTimeMillis() + millis;
-		park(Thread.currentThread(), wakeup);
-		return System.currentTimeMillis() < wakeup;
-	} finally { unsync(); } }
+	@Synchronized public boolean join(long millis) {
+		if (existSync(Opened)) return true;
+		return millis > 0 && park(System.currentTimeMillis() + millis); }
+
+	/** Пройти через затвор с таймаутом. Аналогичен методу {@link #join(long, TimeUnit)},
+	 * но ожидание прекращается прерыванием потока.
+	 * @throws InterruptedException — поток прерван до прохода через затвор. */
+	@Synchronized public boolean joinInterruptibly(long await, TimeUnit unit)
+			throws InterruptedException {
+		if (Thread.interrupted()) throw new InterruptedException();
+		if (existSync(Opened)) return true;
+		long millis = unit.toMillis(await);
+		return millis > 0 && parkInterruptibly(System.currentTimeMillis() + millis); }
+
+	/** Пройти через затвор, не блокируя поток. Подходит для асинхронных конвейеров, где
+	 * поток нельзя парковать. Future завершается, когда затвор откроется или когда её
+	 * пропустят методом {@link #pass(int)}; отменённая future пропуска не съедает.
+	 * @return если затвор открыт, то общий уже завершённый экземпляр без выделения
+	 *         памяти; менять его состояние (obtrude*) нельзя. */
+	public CompletionStage<Void> joinAsync() {
+		if (existSync(Opened)) return Passed;
+		CompletableFuture<Void> result = new CompletableFuture<Void>();
+		subscribe(result);
+		return result; }
+
+	/** Выполнить задачу после прохода через затвор, не блокируя поток. Если затвор
+	 * открыт, то задача выполняется сразу в текущем потоке, иначе — в потоке, который
+	 * откроет затвор или пропустит её методом {@link #pass(int)}. Задача должна быть
+	 * короткой, т.к. задерживает пропуск остальных. */
+	public void onOpen(@NotNull Runnable task) { onOpen(task, null); }
+
+	/** Выполнить задачу через executor после прохода через затвор, не блокируя поток.
+	 * Если затвор открыт, то задача сразу передаётся в executor без лишних выделений
+	 * памяти.
+	 * @param executor — исполнитель задачи; null — выполнить в пропускающем потоке. */
+	public void onOpen(@NotNull Runnable task, @Nullable Executor executor) {
+		if (!existSync(Opened)) subscribe(task, executor);
+		else if (executor != null) executor.execute(task);
+		else task.run(); }
+
+	@Override boolean ready(int need) { return existSync(Opened); }
+
+	/** Пропустить все ждущие потоки: разом или каскадом, если он включён. */
+	private int release() {
+		int batch = maskSync(mBatch) >>> Shift;
+		if (batch == 0) return unpark(-1);
+		if (batch == mBatch >>> Shift) batch = Runtime.getRuntime().availableProcessors();
+		return unparkCascade(batch); }
+
+	/** Общая завершённая future для прохода через открытый затвор. */
+	private static final CompletableFuture<Void> Passed =
+			CompletableFuture.completedFuture(null);
+
+	/** Размер пачки каскадного пробуждения по числу доступных процессоров. */
+	public static final int AutoBatch = -1;
+	/** Максимальный явный размер пачки каскадного пробуждения. */
+	public static final int MaxBatch  = 254;
 
 	private static final int Opened = 1;
+	/** Сдвиг и маска размера пачки каскадного пробуждения; все единицы — AutoBatch. */
+	private static final int Shift  = 8, mBatch = 0xFF << Shift;
 }
 
 
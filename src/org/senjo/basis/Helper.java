@@ -7,17 +7,18 @@
  */
 package org.senjo.basis;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.*;
 import org.senjo.annotation.*;
-import sun.misc.JavaLangAccess;
-import sun.misc.SharedSecrets;
 import sun.misc.Unsafe;
 
 /** Специфичные вспомогательные статические методы общего назначения.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version 2016, change 2019-02-12, release */
+ * @version 2016, change 2026-10-19, release */
 public class Helper {
 	/** Метод упрощает написание своей реализации проверки на эквивалентность.
 	 * Он выполняет все типичные начальные проверки и возвращает true, если результат
@@ -170,7 +171,7 @@ public class Helper {
 	 * к неуправляемой памяти, командам процессора и низкоуровневого управления потоками. */
 	public static final Unsafe         unsafe = unsafeHack();
 	/** Доступ к секретам (приватным методам) некоторых стандартных Java-классов. */
-	public static final JavaLangAccess secret = SharedSecrets.getJavaLangAccess();
+	public static final Secret         secret = new Secret();
 	/** Хулиганский синглтон, который в целях ускорения производительности и экономии
 	 * ресурсов выполняет над сторонними объектами небезопасные действия.
 	 * Использовать только с полным пониманием производимых действий. */
@@ -210,11 +211,60 @@ public class Helper {
 		return (T)result; }
 
 
+//======== Виртуальные потоки (Java 21+) =================================================//
+	/** Метод Thread#isVirtual, если Java машина поддерживает виртуальные потоки; иначе
+	 * null. Библиотека собирается под Java 8, поэтому метод ищется через отражение. */
+	private static final MethodHandle VirtualProbe = virtualProbe();
+
+	/** Является ли поток виртуальным. Виртуальный поток нельзя подолгу крутить в спине
+	 * или парковать в обход {@link java.util.concurrent.locks.LockSupport}: он удерживает
+	 * поток-носитель, на котором мог бы выполняться держатель монитора. До Java 21 всегда
+	 * возвращает false. */
+	public static boolean isVirtual(@NotNull Thread thread) {
+		if (VirtualProbe == null) return false;
+		try { return (boolean)VirtualProbe.invokeExact(thread); }
+		catch (Throwable ex) { return false; } }
+
+	private static MethodHandle virtualProbe() { try {
+		return MethodHandles.publicLookup().findVirtual(
+				Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+	} catch (ReflectiveOperationException ex) { return null; } }
+
+	/** Метод Thread#startVirtualThread, если Java машина поддерживает виртуальные потоки;
+	 * иначе null. */
+	private static final MethodHandle VirtualStarter = virtualStarter();
+
+	/** Запустить задачу в отдельном потоке: в виртуальном, если Java машина их
+	 * поддерживает, иначе в фоновом (daemon) платформенном потоке. Подходит для задач,
+	 * которые в основном ждут ввода-вывода. */
+	public static @NotNull Thread startThread(@NotNull String name,
+			@NotNull Runnable task) {
+		Thread result = null;
+		if (VirtualStarter != null) try {
+			result = (Thread)VirtualStarter.invokeExact(task);
+		} catch (Throwable ex) { result = null; }
+		if (result != null) { result.setName(name); return result; }
+		result = new Thread(task, name);
+		result.setDaemon(true);
+		result.start();
+		return result; }
+
+	private static MethodHandle virtualStarter() { try {
+		return MethodHandles.publicLookup().findStatic(Thread.class, "startVirtualThread",
+				MethodType.methodType(Thread.class, Runnable.class));
+	} catch (ReflectiveOperationException ex) { return null; } }
+
+
 	private final static int StackTraceOffset = unsafeOffset(Throwable.class, "stackTrace");
 
 	/** Заполняет в исключение стек вызовов вырезая указанное число верхних записей. */
 	static <Type extends Throwable> Type fillStackTrace(Type target, int consumeDepth) {
 		if (consumeDepth <= 0) return target;
+		if (!secret.isNative()) {
+			StackTraceElement[] stack = target.getStackTrace();
+			target.setStackTrace(Arrays.copyOfRange(
+					stack, Math.min(consumeDepth, stack.length), stack.length));
+			return target; }
 		int depth = Math.max(secret.getStackTraceDepth(target) - consumeDepth, 0);
 		StackTraceElement[] result = new StackTraceElement[depth];
 
@@ -224,6 +274,49 @@ public class Helper {
 		return target;
 	}
 
+	/** Методы sun.misc.JavaLangAccess для чтения стека без копирования; null, если Java
+	 * машина новее 8-й и таких методов у неё нет. Ищутся через отражение, иначе класс
+	 * Helper не загрузился бы на Java 9+. */
+	private static final MethodHandle SecretElement, SecretDepth;
+	static {
+		MethodHandle element = null, depth = null;
+		try {
+			Class<?> type = Class.forName("sun.misc.JavaLangAccess");
+			Object access = Class.forName("sun.misc.SharedSecrets")
+					.getMethod("getJavaLangAccess").invoke(null);
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			element = lookup.findVirtual(type, "getStackTraceElement",
+					MethodType.methodType(StackTraceElement.class, Throwable.class, int.class))
+					.bindTo(access);
+			depth = lookup.findVirtual(type, "getStackTraceDepth",
+					MethodType.methodType(int.class, Throwable.class)).bindTo(access);
+		} catch (ReflectiveOperationException|RuntimeException|LinkageError ex) {
+			element = depth = null; }
+		SecretElement = element; SecretDepth = depth; }
+
+	/** Чтение стека вызовов выброса. На Java 8 читает отдельные записи без создания
+	 * копии всего стека, на новых Java машинах — через {@link Throwable#getStackTrace()}.
+	 * Поэтому выброс, который переопределяет getStackTrace(), на новых Java машинах
+	 * отдаст свой стек, а не исходный. */
+	public static final class Secret {
+		private Secret() { }
+
+		/** Доступно чтение стека без копирования (Java 8). */
+		public boolean isNative() { return SecretElement != null; }
+
+		public StackTraceElement getStackTraceElement(Throwable target, int index) {
+			if (SecretElement == null) return target.getStackTrace()[index];
+			try { return (StackTraceElement)SecretElement.invokeExact(target, index); }
+			catch (RuntimeException|Error ex) { throw ex; }
+			catch (Throwable ex) { throw new IllegalStateException(ex); } }
+
+		public int getStackTraceDepth(Throwable target) {
+			if (SecretDepth == null) return target.getStackTrace().length;
+			try { return (int)SecretDepth.invokeExact(target); }
+			catch (RuntimeException|Error ex) { throw ex; }
+			catch (Throwable ex) { throw new IllegalStateException(ex); } }
+	}
+
 	/** Хулиганский синглтон, который в целях ускорения производительности и экономии
 	 * ресурсов выполняет над сторонними объектами небезопасные действия.
 	 * Использовать только с полным пониманием производимых действий. */
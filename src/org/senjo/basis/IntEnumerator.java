@@ -0,0 +1,137 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/** Перечислитель целых чисел без упаковки в {@link Integer}. Примитивный собрат
+ * {@link AEnumerator}: интерфейс описывает перечисление с доступом к текущему
+ * элементу {@link #intItem()}, а базы для реализаций повторяют устройство
+ * {@link AEnumerator}: {@link Plain}, {@link Reliable} с проверкой версии источника,
+ * {@link Walker} со свободным перемещением {@link AEnumerator.Walker#seek(int) seek}
+ * и {@link AEnumerator.Walker#shift(int) shift}, {@link Editor} с изменением источника.
+ * Индексы, состояние и проверки берутся из {@link AEnumerator}, а упакованный
+ * {@link AEnumerator#item()} остаётся для совместимости и упаковывает элемент при каждом
+ * вызове.
+ * <p/>
+ * Элементы можно получать пачками {@link #nextBatch(int[])}, обходить через
+ * {@link PrimitiveIterator.OfInt} или потоком {@link IntStream}.
+ * 
+ *  Использование:<pre>
+ * IntEnumerator ids = IntEnumerator.of(1, 5, 7);
+ * while (ids.next()) total += ids.intItem();
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public interface IntEnumerator {
+	/** Перейти к следующему элементу, см. {@link AEnumerator#next()}. */
+	boolean next();
+
+	/** Текущая позиция перечислителя, см. {@link AEnumerator#index()}. */
+	int index();
+
+	/** Количество элементов или fake, если оно неизвестно, см.
+	 * {@link AEnumerator#size(int)}. */
+	int size(int fake);
+
+	/** Текущий элемент перечисляемого источника без упаковки. */
+	int intItem();
+
+	/** Перейти к следующим элементам пачкой, скопировав их в буфер целиком.
+	 * @return сколько элементов скопировано; меньше длины буфера — перебор закончен. */
+	default int nextBatch(int[] buffer) { return nextBatch(buffer, 0, buffer.length); }
+
+	/** Перейти к следующим элементам пачкой, скопировав не больше max элементов в буфер
+	 * начиная с индекса from. Реализация по умолчанию перебирает элементы по одному,
+	 * перечислители над массивами копируют их разом, см.
+	 * {@link AEnumerator#fill(Object[], int, int)}.
+	 * @return сколько элементов скопировано; меньше max — перебор закончен. */
+	default int nextBatch(int[] buffer, int from, int max) {
+		PrimitiveEnumerators.check(buffer.length, from, max);
+		int count = 0;
+		while (count != max && next()) buffer[from + count++] = intItem();
+		return count; }
+
+	/** Выполнить действие над каждым оставшимся элементом без упаковки. */
+	default void forEachInt(IntConsumer action) {
+		while (next()) action.accept(intItem()); }
+
+	/** Итератор оставшихся элементов без упаковки. Как и итератор {@link AEnumerator},
+	 * метод {@code hasNext()} уже переводит перечислитель на следующий элемент. */
+	default PrimitiveIterator.OfInt intIterator() {
+		return new PrimitiveEnumerators.IntIterator(this); }
+
+	/** Разделитель оставшихся элементов для потоков. Если число элементов известно, то
+	 * разделитель имеет точный размер; параллельным задачам элементы раздаются пачками
+	 * {@link #nextBatch(int[], int, int)}. */
+	default Spliterator.OfInt intSpliterator() {
+		return new PrimitiveEnumerators.IntSpliterator(this); }
+
+	/** Последовательный поток оставшихся элементов без упаковки. */
+	default IntStream intStream() { return intStream(false); }
+
+	/** Поток оставшихся элементов без упаковки.
+	 * @param parallel — параллельный поток. */
+	default IntStream intStream(boolean parallel) {
+		return StreamSupport.intStream(intSpliterator(), parallel); }
+
+	/** Гуляющий перечислитель над массивом; массив не копируется. */
+	static Walker of(int ... values) {
+		return new PrimitiveEnumerators.IntArray(values); }
+
+
+
+	/** База простого перечислителя, аналог {@link AEnumerator}. */
+	abstract class Plain extends AEnumerator<Integer>
+			implements IntEnumerator {
+		@Override public final Integer item() { return intItem(); }
+	}
+
+	/** База надёжного перечислителя, аналог {@link AEnumerator.Reliable}. */
+	abstract class Reliable extends AEnumerator.Reliable<Integer>
+			implements IntEnumerator {
+		protected Reliable() { }
+		protected Reliable(int version) { super(version); }
+
+		@Override public final Integer item() { return intItem(); }
+		@Override public IntEnumerator.Reliable reset() { super.reset(); return this; }
+	}
+
+	/** База гуляющего перечислителя, аналог {@link AEnumerator.Walker}. */
+	abstract class Walker extends AEnumerator.Walker<Integer>
+			implements IntEnumerator {
+		@Override public final Integer item() { return intItem(); }
+		@Override public IntEnumerator.Walker reset() { super.reset(); return this; }
+	}
+
+	/** База изменяющего перечислителя, аналог {@link AEnumerator.Editor}. Упакованные
+	 * методы изменения распаковывают элемент и вызывают примитивные. */
+	abstract class Editor extends AEnumerator.Editor<Integer, Integer>
+			implements IntEnumerator {
+		@Override public final Integer item() { return intItem(); }
+
+		/** Вставляет новый элемент перед текущим элементом. */
+		public abstract void prepend(int item);
+		/** Вставляет новый элемент после текущего элемента. */
+		public abstract void  append(int item);
+		/** Заменяет текущий элемент на новый. */
+		public abstract void replace(int item);
+
+		@Override public final void prepend(Integer item) { prepend(item.intValue()); }
+		@Override public final void  append(Integer item) {  append(item.intValue()); }
+		@Override public final void replace(Integer item) { replace(item.intValue()); }
+	}
+}
+
+
+
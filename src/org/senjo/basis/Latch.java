@@ -0,0 +1,83 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+import static org.senjo.basis.Helper.unsafe;
+
+import java.util.concurrent.TimeUnit;
+import org.senjo.annotation.*;
+
+/** Одноразовая защёлка с обратным отсчётом. Аналог
+ * {@link java.util.concurrent.CountDownLatch}: потоки ждут, пока счётчик не дойдёт до
+ * нуля, после чего проходят все разом, а защёлка остаётся открытой навсегда.
+ * <p/>
+ * Счётчик хранится прямо в корзинке, ждущие потоки — в стеке {@link ABarrier}. Защёлка
+ * занимает один небольшой объект без AQS, поэтому её дёшево заводить на каждый запрос,
+ * например для сбора ответов от нескольких источников.
+ * 
+ *  Использование:<pre>
+ * Latch latch = new Latch(sources.size());
+ * for (Source source : sources) source.request(answer -> { ...; latch.countDown(); });
+ * latch.await(200, TimeUnit.MILLISECONDS);
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+@Synchronized public final class Latch extends ABarrier {
+	/** @param count — число отсчётов до открытия защёлки, не меньше нуля. */
+	public Latch(int count) {
+		if (count < 0) throw Illegal("Latch count can't be negative: " + count);
+		basket = count; }
+
+	/** Текущее значение счётчика: сколько ещё отсчётов осталось до открытия. */
+	@Synchronized public int getCount() { return maskSync(mCount); }
+
+	/** Уменьшить счётчик на единицу. Когда он дойдёт до нуля, все ждущие потоки будут
+	 * пропущены. Если счётчик уже равен нулю, то ничего не происходит. */
+	@Synchronized public void countDown() {
+		while (true) {
+			int basket = unsafe.getIntVolatile(this, offset), count = basket & mCount;
+			if (count == 0) return;
+			if (unsafe.compareAndSwapInt(this, offset, basket, basket - 1)) {
+				if (count == 1) unpark(-1);
+				return; } } }
+
+	/** Ждать открытия защёлки.
+	 * @throws InterruptedException — поток прерван до открытия защёлки. */
+	@Synchronized public void await() throws InterruptedException {
+		if (Thread.interrupted()) throw new InterruptedException();
+		if (!ready(0)) parkInterruptibly(0); }
+
+	/** Ждать открытия защёлки с таймаутом.
+	 * @return true — защёлка открыта; false — истёк таймаут.
+	 * @throws InterruptedException — поток прерван до открытия защёлки. */
+	@Synchronized public boolean await(long await, TimeUnit unit)
+			throws InterruptedException {
+		if (Thread.interrupted()) throw new InterruptedException();
+		if (ready(0)) return true;
+		long millis = unit.toMillis(await);
+		return millis > 0 && parkInterruptibly(System.currentTimeMillis() + millis); }
+
+	/** Ждать открытия защёлки. Прерывание потока не прекращает ожидание, но флаг
+	 * прерывания сохраняется. */
+	@Synchronized public void awaitUninterruptibly() { if (!ready(0)) park(0); }
+
+	@Override public String toString() {
+		return Text.hashName(this) + "[count=" + getCount() + ']'; }
+
+	@Override boolean ready(int need) { return emptySync(mCount); }
+
+
+
+//======== Basket : Постоянные для корзинки фруктов ======================================//
+	/** Маска счётчика, занимает все свободные биты корзинки. */
+	private static final int mCount = (1<<fin+1) - 1;
+}
+
+
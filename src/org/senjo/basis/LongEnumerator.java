@@ -0,0 +1,137 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/** Перечислитель длинных целых чисел без упаковки в {@link Long}. Примитивный собрат
+ * {@link AEnumerator}: интерфейс описывает перечисление с доступом к текущему
+ * элементу {@link #longItem()}, а базы для реализаций повторяют устройство
+ * {@link AEnumerator}: {@link Plain}, {@link Reliable} с проверкой версии источника,
+ * {@link Walker} со свободным перемещением {@link AEnumerator.Walker#seek(int) seek}
+ * и {@link AEnumerator.Walker#shift(int) shift}, {@link Editor} с изменением источника.
+ * Индексы, состояние и проверки берутся из {@link AEnumerator}, а упакованный
+ * {@link AEnumerator#item()} остаётся для совместимости и упаковывает элемент при каждом
+ * вызове.
+ * <p/>
+ * Элементы можно получать пачками {@link #nextBatch(long[])}, обходить через
+ * {@link PrimitiveIterator.OfLong} или потоком {@link LongStream}.
+ * 
+ *  Использование:<pre>
+ * LongEnumerator ids = LongEnumerator.of(1L, 5L, 7L);
+ * while (ids.next()) total += ids.longItem();
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public interface LongEnumerator {
+	/** Перейти к следующему элементу, см. {@link AEnumerator#next()}. */
+	boolean next();
+
+	/** Текущая позиция перечислителя, см. {@link AEnumerator#index()}. */
+	int index();
+
+	/** Количество элементов или fake, если оно неизвестно, см.
+	 * {@link AEnumerator#size(int)}. */
+	int size(int fake);
+
+	/** Текущий элемент перечисляемого источника без упаковки. */
+	long longItem();
+
+	/** Перейти к следующим элементам пачкой, скопировав их в буфер целиком.
+	 * @return сколько элементов скопировано; меньше длины буфера — перебор закончен. */
+	default int nextBatch(long[] buffer) { return nextBatch(buffer, 0, buffer.length); }
+
+	/** Перейти к следующим элементам пачкой, скопировав не больше max элементов в буфер
+	 * начиная с индекса from. Реализация по умолчанию перебирает элементы по одному,
+	 * перечислители над массивами копируют их разом, см.
+	 * {@link AEnumerator#fill(Object[], int, int)}.
+	 * @return сколько элементов скопировано; меньше max — перебор закончен. */
+	default int nextBatch(long[] buffer, int from, int max) {
+		PrimitiveEnumerators.check(buffer.length, from, max);
+		int count = 0;
+		while (count != max && next()) buffer[from + count++] = longItem();
+		return count; }
+
+	/** Выполнить действие над каждым оставшимся элементом без упаковки. */
+	default void forEachLong(LongConsumer action) {
+		while (next()) action.accept(longItem()); }
+
+	/** Итератор оставшихся элементов без упаковки. Как и итератор {@link AEnumerator},
+	 * метод {@code hasNext()} уже переводит перечислитель на следующий элемент. */
+	default PrimitiveIterator.OfLong longIterator() {
+		return new PrimitiveEnumerators.LongIterator(this); }
+
+	/** Разделитель оставшихся элементов для потоков. Если число элементов известно, то
+	 * разделитель имеет точный размер; параллельным задачам элементы раздаются пачками
+	 * {@link #nextBatch(long[], int, int)}. */
+	default Spliterator.OfLong longSpliterator() {
+		return new PrimitiveEnumerators.LongSpliterator(this); }
+
+	/** Последовательный поток оставшихся элементов без упаковки. */
+	default LongStream longStream() { return longStream(false); }
+
+	/** Поток оставшихся элементов без упаковки.
+	 * @param parallel — параллельный поток. */
+	default LongStream longStream(boolean parallel) {
+		return StreamSupport.longStream(longSpliterator(), parallel); }
+
+	/** Гуляющий перечислитель над массивом; массив не копируется. */
+	static Walker of(long ... values) {
+		return new PrimitiveEnumerators.LongArray(values); }
+
+
+
+	/** База простого перечислителя, аналог {@link AEnumerator}. */
+	abstract class Plain extends AEnumerator<Long>
+			implements LongEnumerator {
+		@Override public final Long item() { return longItem(); }
+	}
+
+	/** База надёжного перечислителя, аналог {@link AEnumerator.Reliable}. */
+	abstract class Reliable extends AEnumerator.Reliable<Long>
+			implements LongEnumerator {
+		protected Reliable() { }
+		protected Reliable(int version) { super(version); }
+
+		@Override public final Long item() { return longItem(); }
+		@Override public LongEnumerator.Reliable reset() { super.reset(); return this; }
+	}
+
+	/** База гуляющего перечислителя, аналог {@link AEnumerator.Walker}. */
+	abstract class Walker extends AEnumerator.Walker<Long>
+			implements LongEnumerator {
+		@Override public final Long item() { return longItem(); }
+		@Override public LongEnumerator.Walker reset() { super.reset(); return this; }
+	}
+
+	/** База изменяющего перечислителя, аналог {@link AEnumerator.Editor}. Упакованные
+	 * методы изменения распаковывают элемент и вызывают примитивные. */
+	abstract class Editor extends AEnumerator.Editor<Long, Long>
+			implements LongEnumerator {
+		@Override public final Long item() { return longItem(); }
+
+		/** Вставляет новый элемент перед текущим элементом. */
+		public abstract void prepend(long item);
+		/** Вставляет новый элемент после текущего элемента. */
+		public abstract void  append(long item);
+		/** Заменяет текущий элемент на новый. */
+		public abstract void replace(long item);
+
+		@Override public final void prepend(Long item) { prepend(item.longValue()); }
+		@Override public final void  append(Long item) {  append(item.longValue()); }
+		@Override public final void replace(Long item) { replace(item.longValue()); }
+	}
+}
+
+
+
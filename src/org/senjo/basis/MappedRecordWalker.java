@@ -0,0 +1,244 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.senjo.annotation.*;
+
+/** Гуляющий перечислитель записей файла, отображённого в память. Поддерживает два вида
+ * записей:
+ * <br/>• {@link #fixed(Path, int) записи фиксированной длины} — переход к любой записи
+ *        {@link #seek(int)} вычисляется за O(1);
+ * <br/>• {@link #lines(Path) строки}, разделённые {@code '\n'} (завершающий {@code '\r'}
+ *        отбрасывается) — перечислитель по ходу перебора лениво строит разреженный индекс
+ *        начала каждой {@link #Sparse}-ой строки, поэтому переход к уже пройденной строке
+ *        стоит не больше {@link #Sparse} строк просмотра, а к новой — просмотра до неё.
+ * <p/>
+ * Элемент {@link #item()} — окно байтов записи в отображённой памяти без копирования.
+ * Буфер окна переиспользуется и действителен только до следующего перемещения
+ * перечислителя. Метод {@link #text()} декодирует запись из UTF-8 в переиспользуемый
+ * буфер символов, тоже без создания строк.
+ * <p/>
+ * Файл отображается кусками по мере обращения, поэтому поддерживаются файлы больше 2ГБ;
+ * каждый кусок отображается с запасом на ещё один кусок, чтобы запись, начатая в нём,
+ * читалась целиком. Отсюда ограничение: запись не длиннее куска. Перечислитель записей
+ * фиксированной длины умеет {@link #fork()}, т.е. параллельный поток делит файл на
+ * диапазоны записей. Номера записей — int, как и у всех перечислителей.
+ * 
+ *  Использование:<pre>
+ * try (MappedRecordWalker log = MappedRecordWalker.lines(path)) {
+ *   if (log.seek(1000000)) replay(log.text()); }
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public final class MappedRecordWalker extends AEnumerator.Walker<ByteBuffer>
+		implements AutoCloseable {
+	/** Отображение файла, общее для перечислителя и его ответвлений {@link #fork()}. */
+	private final Mapping mapping;
+	/** Длина записи; 0 — записи являются строками. */
+	private final int width;
+	/** Перечислитель открыл файл сам, а не ответвлён от другого. */
+	private final boolean owner;
+	/** Окна кусков файла, свои у каждого перечислителя. */
+	private final ByteBuffer[] views;
+
+	/** Разреженный индекс строк: смещение начала каждой {@link #Sparse}-ой строки. */
+	private long[] marks = { 0 };
+	private int marked = 1;
+	/** Число строк в файле; -1 — ещё неизвестно. */
+	private int lines = -1;
+
+	/** Смещение начала текущей записи в файле и её длина. */
+	private long start = -1;
+	private int length;
+	/** Номер текущей строки и смещение начала следующей строки в файле. */
+	private int line = -1;
+	private long follow;
+	private ByteBuffer item;
+
+	private CharsetDecoder decoder;
+	private CharBuffer text;
+
+	private MappedRecordWalker(Mapping mapping, int width, boolean owner) {
+		this.mapping = mapping; this.width = width; this.owner = owner;
+		this.views = new ByteBuffer[mapping.chunks.length];
+		if (width == 0 && mapping.length == 0) lines = 0; }
+
+	/** Открыть файл записей фиксированной длины width байт. Неполная запись в конце
+	 * файла не перечисляется. */
+	public static @NotNull MappedRecordWalker fixed(@NotNull Path file, int width)
+			throws IOException {
+		return fixed(file, width, DefaultChunk); }
+
+	/** Открыть файл записей фиксированной длины width байт.
+	 * @param chunk — размер отображаемого куска файла, не меньше width. */
+	public static @NotNull MappedRecordWalker fixed(@NotNull Path file, int width,
+			int chunk) throws IOException {
+		if (width <= 0 || width > chunk) throw Illegal(
+				"Record width must be in range 1.." + chunk + ": " + width);
+		return new MappedRecordWalker(new Mapping(file, chunk), width, true); }
+
+	/** Открыть файл строк. */
+	public static @NotNull MappedRecordWalker lines(@NotNull Path file) throws IOException {
+		return lines(file, DefaultChunk); }
+
+	/** Открыть файл строк.
+	 * @param chunk — размер отображаемого куска файла, он же предельная длина строки. */
+	public static @NotNull MappedRecordWalker lines(@NotNull Path file, int chunk)
+			throws IOException {
+		return new MappedRecordWalker(new Mapping(file, chunk), 0, true); }
+
+	/** Окно байтов текущей записи: позиция буфера — начало записи, граница — её конец.
+	 * Буфер переиспользуется, данные в нём менять нельзя. */
+	@Override public ByteBuffer item() { assertItem(); return item; }
+
+	/** Текущая запись, декодированная из UTF-8. Буфер символов переиспользуется
+	 * и действителен до следующего перемещения перечислителя. */
+	public @NotNull CharBuffer text() {
+		ByteBuffer item = item();
+		if (decoder == null) decoder = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		// В UTF-8 символов не больше, чем байтов
+		if (text == null || text.capacity() < length)
+			text = CharBuffer.allocate(Math.max(length, 64));
+		int position = item.position();
+		text.clear();
+		decoder.reset().decode(item, text, true);
+		decoder.flush(text);
+		item.position(position);
+		text.flip();
+		return text; }
+
+	/** Смещение начала текущей записи в файле. */
+	public long position() { assertItem(); return start; }
+
+	/** Длина текущей записи в байтах. */
+	public int length() { assertItem(); return length; }
+
+	@Override public int size(int fake) {
+		if (width != 0) return (int)Math.min(mapping.length / width, Integer.MAX_VALUE);
+		return lines >= 0 ? lines : fake; }
+
+	/** Закрыть файл. Отображённые куски освобождаются сборщиком мусора. Ответвления
+	 * {@link #fork()} файл не закрывают. */
+	@Override public void close() throws IOException {
+		if (owner) mapping.channel.close(); }
+
+
+
+	@Override protected boolean shift(int index, int count) {
+		if (index < 0) return false;
+		if (width != 0) {
+			if (index >= size(0)) return false;
+			return locate((long)index * width, width); }
+		// Следующая строка продолжает текущую, иначе ищем через разреженный индекс
+		long from;
+		int line;
+		if (this.line >= 0 && this.line == index - 1) { from = follow; line = index; }
+		else {
+			int mark = Math.min(index / Sparse, marked - 1);
+			from = marks[mark]; line = mark * Sparse; }
+		while (true) {
+			if (lines >= 0 && line >= lines) return false;
+			if (from >= mapping.length) { lines = line; return false; }
+			long end = lineEnd(from);
+			if (line % Sparse == 0 && line / Sparse == marked) mark(from);
+			if (line == index) {
+				this.line = line; follow = end + 1;
+				if (end > from && byteAt(end - 1) == '\r') --end;
+				return locate(from, (int)(end - from)); }
+			from = end + 1; ++line; } }
+
+	@Override protected AEnumerator.Walker<ByteBuffer> fork() {
+		return width != 0 ? new MappedRecordWalker(mapping, width, false) : null; }
+
+	private void mark(long from) {
+		if (marked == marks.length) marks = Arrays.copyOf(marks, marked * 2);
+		marks[marked++] = from; }
+
+	/** Встать на запись по смещению from длиной length байт. */
+	private boolean locate(long from, int length) {
+		int chunk = (int)(from / mapping.chunk), local = (int)(from % mapping.chunk);
+		ByteBuffer view = view(chunk);
+		view.limit(local + length);
+		view.position(local);
+		this.item = view; this.start = from; this.length = length;
+		return true; }
+
+	/** Смещение конца строки, начатой по смещению from: символа '\n' или конца файла. */
+	private long lineEnd(long from) {
+		int chunk = (int)(from / mapping.chunk), local = (int)(from % mapping.chunk);
+		ByteBuffer view = view(chunk);
+		long base = (long)chunk * mapping.chunk;
+		int limit = view.capacity();
+		for (int index = local; index != limit; ++index)
+			if (view.get(index) == '\n') return base + index;
+		if (base + limit >= mapping.length) return mapping.length;
+		throw Illegal("Line at " + from + " is longer than " + mapping.chunk + " bytes"); }
+
+	private byte byteAt(long offset) {
+		return view((int)(offset / mapping.chunk)).get((int)(offset % mapping.chunk)); }
+
+	private ByteBuffer view(int chunk) {
+		ByteBuffer result = views[chunk];
+		if (result == null) result = views[chunk] = mapping.chunk(chunk).duplicate();
+		result.clear();
+		return result; }
+
+	/** Строк между отметками разреженного индекса. */
+	public static final int Sparse = 1024;
+	/** Размер отображаемого куска по умолчанию: 512МБ, с запасом кусок занимает 1ГБ. */
+	public static final int DefaultChunk = 1 << 29;
+	/** Предельный размер куска: кусок с запасом должен уместиться в {@link ByteBuffer}. */
+	public static final int MaxChunk = Integer.MAX_VALUE / 2;
+
+
+
+	/** Отображение файла кусками по chunk байт, каждый с запасом ещё на chunk байт. */
+	private static final class Mapping {
+		final FileChannel channel;
+		final long length;
+		final int chunk;
+		final MappedByteBuffer[] chunks;
+
+		Mapping(Path file, int chunk) throws IOException {
+			if (chunk <= 0 || chunk > MaxChunk) throw Illegal(
+					"Chunk must be in range 1.." + MaxChunk + ": " + chunk);
+			this.channel = FileChannel.open(file, StandardOpenOption.READ);
+			this.length = channel.size();
+			this.chunk = chunk;
+			this.chunks = new MappedByteBuffer[(int)((length + chunk - 1) / chunk)]; }
+
+		synchronized MappedByteBuffer chunk(int index) {
+			MappedByteBuffer result = chunks[index];
+			if (result != null) return result;
+			long from = (long)index * chunk;
+			long size = Math.min((long)chunk * 2, length - from);
+			try { return chunks[index] = channel.map(FileChannel.MapMode.READ_ONLY, from,
+					size);
+			} catch (IOException ex) { throw new UncheckedIOException(ex); } }
+	}
+}
+
+
+
@@ -0,0 +1,158 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+
+import java.util.concurrent.Executor;
+import org.senjo.annotation.*;
+import org.senjo.support.LogEx;
+
+/** Перечислитель с упреждающей выборкой: перебирает источник в отдельном потоке
+ * и складывает его элементы пачками в кольцевой буфер, пока потребитель обрабатывает
+ * предыдущие. Полезен для источников, которые в {@link #next()} ждут ввода-вывода:
+ * курсоров базы данных, файлов, сетевых ответов. Ожидание источника и обработка элементов
+ * идут параллельно.
+ * <p/>
+ * Буфер ограничен: когда все его пачки заполнены, поток выборки ждёт на семафоре
+ * {@link Semaphore}, пока потребитель не освободит пачку; потребитель так же ждёт
+ * заполненную пачку. Пачки создаются один раз и переиспользуются. Исключение источника
+ * выбрасывается потребителю после последней целой пачки перед сбоем. Если потребитель
+ * прекращает перебор раньше конца, то он должен закрыть перечислитель {@link #close()},
+ * тогда поток выборки остановится, закончив текущую пачку. Если источник
+ * {@link AutoCloseable}, то поток выборки сам закрывает его по окончании работы.
+ * <p/>
+ * Перечислитель однопоточный со стороны потребителя. Источник после передачи
+ * в конструктор напрямую не используется.
+ * 
+ *  Использование:<pre>
+ * try (PrefetchEnumerator&lt;Row&gt; rows = new PrefetchEnumerator&lt;&gt;(cursor)) {
+ *   for (Row row : rows) process(row); }
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, fix 2026-10-19 */
+@SuppressWarnings("unchecked")
+public final class PrefetchEnumerator<T> extends AEnumerator<T> implements AutoCloseable {
+	private final AEnumerator<T> source;
+	/** Сколько элементов осталось в источнике на момент создания; -1 — неизвестно. */
+	private final int size;
+	/** Кольцевой буфер пачек и число элементов в каждой из них. */
+	private final T[][] slots;
+	private final int[] counts;
+	/** Свободные для заполнения и заполненные пачки кольцевого буфера. */
+	private final Semaphore free, filled;
+	private volatile boolean cancelled;
+	private volatile Throwable failure;
+
+	/** Текущая пачка потребителя, число элементов в ней и позиция в ней. */
+	private T[] batch;
+	private int count, cursor = -1;
+	/** Слот кольцевого буфера, из которого потребитель возьмёт следующую пачку. */
+	private int head;
+
+	/** Запускает выборку пачками по {@link #DefaultBatch} элементов, до
+	 * {@link #DefaultDepth} пачек вперёд, в отдельном потоке
+	 * {@link Helper#startThread(String, Runnable)}. */
+	public PrefetchEnumerator(@NotNull AEnumerator<T> source) {
+		this(source, DefaultBatch, DefaultDepth, null); }
+
+	/** Запускает выборку.
+	 * @param batch — размер пачки элементов;
+	 * @param depth — сколько пачек поток выборки может заполнить вперёд потребителя;
+	 * @param executor — исполнитель для потока выборки; null — отдельный поток
+	 *        {@link Helper#startThread(String, Runnable)}, виртуальный, если доступен. */
+	public PrefetchEnumerator(@NotNull AEnumerator<T> source, int batch, int depth,
+			@Nullable Executor executor) {
+		if (batch <= 0 || depth <= 0) throw Illegal(
+				"Batch and depth must be positive: " + batch + ", " + depth);
+		this.source = source;
+		long remain = source.remain();
+		this.size   = remain != Long.MAX_VALUE ? (int)remain : -1;
+		this.slots  = (T[][])new Object[depth][batch];
+		this.counts = new int[depth];
+		this.free   = new Semaphore(depth);
+		this.filled = new Semaphore(0);
+		if (executor != null) executor.execute(this::produce);
+		else Helper.startThread("Prefetch " + Text.hashName(source), this::produce); }
+
+	@Override public T item() { return batch[cursor]; }
+
+	@Override public int size(int fake) { return size >= 0 ? size : super.size(fake); }
+
+	/** Прекратить выборку. Поток выборки останавливается, закончив текущую пачку;
+	 * дальнейший перебор сразу заканчивается. Повторный вызов ничего не делает. */
+	@Override public void close() {
+		if (cancelled) return;
+		cancelled = true;
+		// Лишние разрешения будят поток выборки и потребителя, если они ждут пачку
+		free.release(); filled.release(); }
+
+	@Override protected boolean next(int index) {
+		if (cancelled) return false;
+		if (++cursor < count) return true;
+		return fetch() && ++cursor < count; }
+
+	@Override protected int fill(T[] buffer, int from, int max) {
+		if (!fillable()) return super.fill(buffer, from, max);
+		if (cancelled) return advance(0, max);
+		int done = 0;
+		while (done != max) {
+			int part = Math.min(count - cursor - 1, max - done);
+			if (part <= 0) { if (fetch()) continue; else break; }
+			System.arraycopy(batch, cursor + 1, buffer, from + done, part);
+			cursor += part; done += part; }
+		return advance(done, max); }
+
+
+
+	/** Вернуть текущую пачку в буфер и дождаться следующей.
+	 * @return false — элементы закончились. */
+	private boolean fetch() {
+		if (cancelled) return false;
+		if (batch != null) {
+			if (count < batch.length) return finish();
+			free.release(); }
+		filled.acquireUninterruptibly();
+		if (cancelled) return false;
+		batch = slots[head]; count = counts[head]; cursor = -1;
+		head = (head + 1) % slots.length;
+		return count != 0 || finish(); }
+
+	/** Источник закончился; если он упал, то выбросить его исключение потребителю. */
+	private boolean finish() {
+		Throwable failure = this.failure;
+		if (failure == null) return false;
+		if (failure instanceof RuntimeException) throw (RuntimeException)failure;
+		if (failure instanceof Error) throw (Error)failure;
+		throw new IllegalStateException("Prefetch source failed", failure); }
+
+	/** Цикл потока выборки: заполнить свободную пачку и передать её потребителю.
+	 * Короткая пачка означает конец источника или его сбой. */
+	@Looper private void produce() {
+		int tail = 0;
+		try { while (true) {
+			free.acquireUninterruptibly();
+			if (cancelled) return;
+			int count = 0;
+			try { count = source.nextBatch(slots[tail]); }
+			catch (Throwable ex) { failure = ex; }
+			counts[tail] = count;
+			tail = (tail + 1) % slots.length;
+			filled.release();
+			if (count < slots[0].length) return;
+		} } finally {
+			if (source instanceof AutoCloseable) try { ((AutoCloseable)source).close(); }
+			catch (Exception ex) { LogEx.warn("Can't close prefetch source", ex); } } }
+
+	/** Размер пачки и число пачек вперёд по умолчанию. */
+	public static final int DefaultBatch = 256, DefaultDepth = 4;
+}
+
+
+
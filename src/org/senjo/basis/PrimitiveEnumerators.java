@@ -0,0 +1,278 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/** Внутренние реализации примитивных перечислителей {@link IntEnumerator},
+ * {@link LongEnumerator} и {@link DoubleEnumerator}: перечислители над массивами,
+ * итераторы и разделители для потоков. Вынесены сюда, т.к. вложенные в интерфейс классы
+ * всегда публичные.
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, fix 2026-10-19 */
+final class PrimitiveEnumerators {
+	private PrimitiveEnumerators() { }
+
+	/** Состояния предпросмотра итератора: неизвестно, есть элемент, элементов нет. */
+	private static final int Unknown = 0, Exist = 1, Absent = 2;
+	/** Приращение размера пачки при каждом делении и её предельный размер, как
+	 * у разделителя {@link AEnumerator}. */
+	private static final int Batch = 1024, MaxBatch = 1 << 25;
+
+	/** Подготовить перечислитель к обходу потоком: надёжный перечислитель аннулирует
+	 * выданный итератор и начинает заново, если перебор закончен.
+	 * @return owner как {@link AEnumerator}; null — интерфейс реализован напрямую. */
+	private static AEnumerator<?> prepare(Object owner) {
+		if (!(owner instanceof AEnumerator)) return null;
+		if (owner instanceof AEnumerator.Reliable)
+			((AEnumerator.Reliable<?>)owner).detach();
+		return (AEnumerator<?>)owner; }
+
+	/** Сколько элементов осталось перебрать; Long.MAX_VALUE — неизвестно. Без
+	 * {@link AEnumerator} позиция неизвестна, поэтому это лишь оценка сверху по размеру. */
+	private static long remain(AEnumerator<?> base, int size) {
+		if (base != null) return base.remain();
+		return size < 0 ? Long.MAX_VALUE : size; }
+
+	/** Характеристики разделителя: точный размер известен только у {@link AEnumerator}. */
+	private static int features(AEnumerator<?> base, int size) {
+		return features(base != null ? size : -1); }
+
+	/** Характеристики разделителя по числу элементов; -1 — число неизвестно. */
+	private static int features(int size) {
+		return Spliterator.ORDERED
+				| (size >= 0 ? Spliterator.SIZED|Spliterator.SUBSIZED : 0); }
+
+	/** Проверить диапазон пачки в буфере. */
+	static void check(int length, int from, int max) {
+		if (from < 0 || max < 0 || from > length - max) throw new IndexOutOfBoundsException(
+				"Wrong batch range " + from + '+' + max + " for buffer length " + length); }
+
+	/** Размер очередной пачки с учётом числа оставшихся элементов. */
+	private static int limit(long remain, int batch) {
+		return (int)Math.min(Math.min(remain, batch), MaxBatch); }
+
+
+
+//======== Int : перечислители целых чисел ==============================================//
+	/** Гуляющий перечислитель над массивом, пачки копирует разом. */
+	static final class IntArray extends IntEnumerator.Walker {
+		private final int[] items;
+		IntArray(int[] items) { this.items = items; }
+
+		@Override protected boolean shift(int index, int count) {
+			return index >= 0 && index < items.length; }
+		@Override public int intItem() { return items[index()]; }
+		@Override public int size(int fake) { return items.length; }
+		@Override protected AEnumerator.Walker<Integer> fork() {
+			return new IntArray(items); }
+
+		@Override public int nextBatch(int[] buffer, int from, int max) {
+			check(buffer.length, from, max);
+			int count = 0;
+			if (max == 0) return 0;
+			if (!fillable()) {
+				while (count != max && next()) buffer[from + count++] = items[index];
+				return count; }
+			count = Math.max(Math.min(max, items.length - index - 1), 0);
+			System.arraycopy(items, index + 1, buffer, from, count);
+			return advance(count, max); }
+	}
+
+	static final class IntIterator implements PrimitiveIterator.OfInt {
+		private final IntEnumerator owner;
+		private int state = Unknown;
+		IntIterator(IntEnumerator owner) { this.owner = owner; }
+
+		@Override public boolean hasNext() {
+			if (state == Unknown) state = owner.next() ? Exist : Absent;
+			return state == Exist; }
+
+		@Override public int nextInt() {
+			if (!hasNext()) throw new NoSuchElementException();
+			state = Unknown; return owner.intItem(); }
+	}
+
+	static final class IntSpliterator implements Spliterator.OfInt {
+		private final IntEnumerator owner;
+		private final AEnumerator<?> base;
+		private final int characteristics;
+		private int batch = 0;
+		IntSpliterator(IntEnumerator owner) {
+			this.owner = owner; this.base = prepare(owner);
+			characteristics = features(base, owner.size(-1)); }
+
+		@Override public boolean tryAdvance(IntConsumer action) {
+			if (!owner.next()) return false;
+			action.accept(owner.intItem()); return true; }
+
+		@Override public void forEachRemaining(IntConsumer action) {
+			owner.forEachInt(action); }
+
+		@Override public Spliterator.OfInt trySplit() {
+			int limit = limit(estimateSize(), batch += Batch);
+			if (limit <= 1) return null;
+			int[] array = new int[limit];
+			int count = owner.nextBatch(array, 0, limit);
+			return count == 0 ? null
+					: Spliterators.spliterator(array, 0, count, characteristics|SIZED); }
+
+		@Override public long estimateSize() {
+			return remain(base, owner.size(-1)); }
+		@Override public int characteristics() { return characteristics; }
+	}
+
+
+
+//======== Long : перечислители длинных целых ===========================================//
+	/** Гуляющий перечислитель над массивом, пачки копирует разом. */
+	static final class LongArray extends LongEnumerator.Walker {
+		private final long[] items;
+		LongArray(long[] items) { this.items = items; }
+
+		@Override protected boolean shift(int index, int count) {
+			return index >= 0 && index < items.length; }
+		@Override public long longItem() { return items[index()]; }
+		@Override public int size(int fake) { return items.length; }
+		@Override protected AEnumerator.Walker<Long> fork() {
+			return new LongArray(items); }
+
+		@Override public int nextBatch(long[] buffer, int from, int max) {
+			check(buffer.length, from, max);
+			int count = 0;
+			if (max == 0) return 0;
+			if (!fillable()) {
+				while (count != max && next()) buffer[from + count++] = items[index];
+				return count; }
+			count = Math.max(Math.min(max, items.length - index - 1), 0);
+			System.arraycopy(items, index + 1, buffer, from, count);
+			return advance(count, max); }
+	}
+
+	static final class LongIterator implements PrimitiveIterator.OfLong {
+		private final LongEnumerator owner;
+		private int state = Unknown;
+		LongIterator(LongEnumerator owner) { this.owner = owner; }
+
+		@Override public boolean hasNext() {
+			if (state == Unknown) state = owner.next() ? Exist : Absent;
+			return state == Exist; }
+
+		@Override public long nextLong() {
+			if (!hasNext()) throw new NoSuchElementException();
+			state = Unknown; return owner.longItem(); }
+	}
+
+	static final class LongSpliterator implements Spliterator.OfLong {
+		private final LongEnumerator owner;
+		private final AEnumerator<?> base;
+		private final int characteristics;
+		private int batch = 0;
+		LongSpliterator(LongEnumerator owner) {
+			this.owner = owner; this.base = prepare(owner);
+			characteristics = features(base, owner.size(-1)); }
+
+		@Override public boolean tryAdvance(LongConsumer action) {
+			if (!owner.next()) return false;
+			action.accept(owner.longItem()); return true; }
+
+		@Override public void forEachRemaining(LongConsumer action) {
+			owner.forEachLong(action); }
+
+		@Override public Spliterator.OfLong trySplit() {
+			int limit = limit(estimateSize(), batch += Batch);
+			if (limit <= 1) return null;
+			long[] array = new long[limit];
+			int count = owner.nextBatch(array, 0, limit);
+			return count == 0 ? null
+					: Spliterators.spliterator(array, 0, count, characteristics|SIZED); }
+
+		@Override public long estimateSize() {
+			return remain(base, owner.size(-1)); }
+		@Override public int characteristics() { return characteristics; }
+	}
+
+
+
+//======== Double : перечислители дробных чисел =========================================//
+	/** Гуляющий перечислитель над массивом, пачки копирует разом. */
+	static final class DoubleArray extends DoubleEnumerator.Walker {
+		private final double[] items;
+		DoubleArray(double[] items) { this.items = items; }
+
+		@Override protected boolean shift(int index, int count) {
+			return index >= 0 && index < items.length; }
+		@Override public double doubleItem() { return items[index()]; }
+		@Override public int size(int fake) { return items.length; }
+		@Override protected AEnumerator.Walker<Double> fork() {
+			return new DoubleArray(items); }
+
+		@Override public int nextBatch(double[] buffer, int from, int max) {
+			check(buffer.length, from, max);
+			int count = 0;
+			if (max == 0) return 0;
+			if (!fillable()) {
+				while (count != max && next()) buffer[from + count++] = items[index];
+				return count; }
+			count = Math.max(Math.min(max, items.length - index - 1), 0);
+			System.arraycopy(items, index + 1, buffer, from, count);
+			return advance(count, max); }
+	}
+
+	static final class DoubleIterator implements PrimitiveIterator.OfDouble {
+		private final DoubleEnumerator owner;
+		private int state = Unknown;
+		DoubleIterator(DoubleEnumerator owner) { this.owner = owner; }
+
+		@Override public boolean hasNext() {
+			if (state == Unknown) state = owner.next() ? Exist : Absent;
+			return state == Exist; }
+
+		@Override public double nextDouble() {
+			if (!hasNext()) throw new NoSuchElementException();
+			state = Unknown; return owner.doubleItem(); }
+	}
+
+	static final class DoubleSpliterator implements Spliterator.OfDouble {
+		private final DoubleEnumerator owner;
+		private final AEnumerator<?> base;
+		private final int characteristics;
+		private int batch = 0;
+		DoubleSpliterator(DoubleEnumerator owner) {
+			this.owner = owner; this.base = prepare(owner);
+			characteristics = features(base, owner.size(-1)); }
+
+		@Override public boolean tryAdvance(DoubleConsumer action) {
+			if (!owner.next()) return false;
+			action.accept(owner.doubleItem()); return true; }
+
+		@Override public void forEachRemaining(DoubleConsumer action) {
+			owner.forEachDouble(action); }
+
+		@Override public Spliterator.OfDouble trySplit() {
+			int limit = limit(estimateSize(), batch += Batch);
+			if (limit <= 1) return null;
+			double[] array = new double[limit];
+			int count = owner.nextBatch(array, 0, limit);
+			return count == 0 ? null
+					: Spliterators.spliterator(array, 0, count, characteristics|SIZED); }
+
+		@Override public long estimateSize() {
+			return remain(base, owner.size(-1)); }
+		@Override public int characteristics() { return characteristics; }
+	}
+}
+
+
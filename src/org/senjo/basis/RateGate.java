@@ -0,0 +1,174 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+import static org.senjo.basis.Helper.unsafe;
+import static org.senjo.basis.Helper.unsafeOffset;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.senjo.annotation.*;
+
+/** Ограничитель частоты по алгоритму «ведро с жетонами» (token bucket). Жетоны
+ * пополняются равномерно, по одному за период, а ведро вмещает не больше burst жетонов,
+ * что и задаёт допустимый всплеск.
+ * <p/>
+ * Всё изменяемое состояние — одно число {@link #tick}: момент по
+ * {@link System#nanoTime()}, когда ведро снова станет полным, если больше никто
+ * не возьмёт жетон (алгоритм GCRA). Число свободных жетонов лениво вычисляется из этого
+ * момента и текущего времени, поэтому пополнять ведро по таймеру не нужно, а взятие
+ * жетонов — одна CAS-операция над одним полем. Ёмкость ведра хранится в корзинке.
+ * Ограничитель занимает один небольшой объект, его можно заводить на каждого клиента.
+ * <p/>
+ * Если жетонов не хватает, поток бронирует себе будущие жетоны и ждёт их появления,
+ * паркуясь через {@link ABarrier}. Прерванный или не дождавшийся поток возвращает
+ * бронь обратно в ведро.
+ * 
+ *  Использование:<pre>
+ * RateGate gate = new RateGate(100, 20); // 100 запросов в секунду, всплеск до 20
+ * if (!gate.tryAcquire()) return reject(request);
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+@Synchronized public final class RateGate extends ABarrier {
+	private static final long tickOffset = unsafeOffset(RateGate.class, "tick");
+	/** Период пополнения одного жетона в наносекундах. */
+	private final long period;
+	/** Момент по {@link System#nanoTime()}, когда ведро станет полным. Если он в прошлом,
+	 * то ведро уже полное. */
+	private volatile long tick;
+
+	/** @param permitsPerSecond — скорость пополнения жетонов в секунду;
+	 * @param burst — ёмкость ведра, от 1 до {@link #MaxBurst}; изначально ведро полное. */
+	public RateGate(double permitsPerSecond, int burst) {
+		this(periodOf(permitsPerSecond), TimeUnit.NANOSECONDS, burst); }
+
+	/** @param period — период пополнения одного жетона, больше нуля;
+	 * @param burst — ёмкость ведра, от 1 до {@link #MaxBurst}; изначально ведро полное. */
+	public RateGate(long period, TimeUnit unit, int burst) {
+		this.period = unit.toNanos(period);
+		if (this.period <= 0) throw Illegal("Period must be positive: " + period + unit);
+		if (burst <= 0 || burst > MaxBurst) throw Illegal(
+				"Burst must be in range 1.." + MaxBurst + ": " + burst);
+		// Ёмкость ведра в наносекундах не должна переполнять long с запасом на брони
+		if (this.period > Long.MAX_VALUE / 4 / burst) throw Illegal(
+				"Period is too long: " + period + unit);
+		basket = burst;
+		tick = System.nanoTime(); }
+
+	/** Ёмкость ведра: сколько жетонов можно взять разом после простоя. */
+	@Synchronized public int burst() { return maskSync(mBurst); }
+
+	/** Число жетонов, которые можно взять прямо сейчас без ожидания. */
+	@Synchronized public int available() {
+		long burst = maskSync(mBurst), delta = tick - System.nanoTime();
+		if (delta <= 0) return (int)burst;
+		return (int)Math.max(burst - (delta + period-1) / period, 0); }
+
+	/** Взять один жетон без ожидания.
+	 * @return true — жетон взят; false — ведро пусто. */
+	@Synchronized public boolean tryAcquire() { return reserve(1, 0) == 0; }
+
+	/** Взять несколько жетонов разом без ожидания.
+	 * @return true — жетоны взяты; false — жетонов не хватает. */
+	@Synchronized public boolean tryAcquire(int permits) {
+		return reserve(check(permits), 0) == 0; }
+
+	/** Взять один жетон, ожидая его появления не дольше таймаута. Если жетон заведомо
+	 * не появится за время таймаута, то метод сразу возвращает false.
+	 * @return true — жетон взят; false — жетон не появится за время таймаута.
+	 * @throws InterruptedException — поток прерван до появления жетона. */
+	@Synchronized public boolean tryAcquire(long await, TimeUnit unit)
+			throws InterruptedException {
+		return tryAcquire(1, await, unit); }
+
+	/** Взять несколько жетонов разом, ожидая их появления не дольше таймаута.
+	 * @return true — жетоны взяты; false — жетоны не появятся за время таймаута.
+	 * @throws InterruptedException — поток прерван до появления жетонов. */
+	@Synchronized public boolean tryAcquire(int permits, long await, TimeUnit unit)
+			throws InterruptedException {
+		check(permits);
+		if (Thread.interrupted()) throw new InterruptedException();
+		long delay = reserve(permits, Math.max(unit.toNanos(await), 0));
+		return delay >= 0 && (delay == 0 || sleep(permits, delay)); }
+
+	/** Взять один жетон; если ведро пусто, то ждать его появления.
+	 * @throws InterruptedException — поток прерван до появления жетона. */
+	@Synchronized public void acquire() throws InterruptedException { acquire(1); }
+
+	/** Взять несколько жетонов разом; если их не хватает, то ждать их появления.
+	 * @throws InterruptedException — поток прерван до появления жетонов. */
+	@Synchronized public void acquire(int permits) throws InterruptedException {
+		check(permits);
+		if (Thread.interrupted()) throw new InterruptedException();
+		long delay = reserve(permits, Long.MAX_VALUE);
+		if (delay != 0) sleep(permits, delay); }
+
+	@Override public String toString() {
+		return Text.hashName(this) + '[' + available() + '/' + burst() + ']'; }
+
+
+
+	private static long periodOf(double permitsPerSecond) {
+		if (!(permitsPerSecond > 0)) throw Illegal("Rate must be positive: "
+				+ permitsPerSecond);
+		return Math.max((long)(1e9 / permitsPerSecond), 1); }
+
+	private int check(int permits) {
+		int burst = maskSync(mBurst);
+		if (permits <= 0 || permits > burst) throw new IllegalArgumentException(
+				"Permits must be in range 1.." + burst + ": " + permits);
+		return permits; }
+
+	/** Забронировать жетоны одной CAS-операцией.
+	 * @param limit — допустимая задержка до появления жетонов в наносекундах.
+	 * @return задержка, через которую забронированные жетоны появятся; 0 — жетоны
+	 *         взяты сразу; -1 — задержка превысила limit, бронь не сделана. */
+	private long reserve(int permits, long limit) {
+		long capacity = maskSync(mBurst) * period, cost = permits * period;
+		while (true) {
+			long tick = this.tick, now = System.nanoTime();
+			long update = (tick - now > 0 ? tick : now) + cost;
+			long delay = update - now - capacity;
+			if (delay > limit) return -1;
+			if (unsafe.compareAndSwapLong(this, tickOffset, tick, update))
+				return Math.max(delay, 0); } }
+
+	/** Дождаться забронированных жетонов. Если ожидание прервано, то бронь возвращается
+	 * в ведро.
+	 * @return true — жетоны дождались. */
+	@Looper private boolean sleep(int permits, long delay) throws InterruptedException {
+		long deadline = System.nanoTime() + delay;
+		boolean done = false;
+		try {
+			for (long remain = delay; remain > 0; remain = deadline - System.nanoTime()) {
+				// Долгое ожидание через барьер с миллисекундным сроком, остаток — точно
+				if (remain > Precise) parkInterruptibly(
+						System.currentTimeMillis() + (remain - Precise) / 1000000 + 1);
+				else {
+					LockSupport.parkNanos(this, remain);
+					if (Thread.interrupted()) throw new InterruptedException(); } }
+			return done = true;
+		} finally { if (!done) unsafe.getAndAddLong(this, tickOffset, -permits * period); }
+	}
+
+	/** Порог точного ожидания: меньшие задержки досыпаются без барьера. */
+	private static final long Precise = 2000000;
+
+
+
+//======== Basket : Постоянные для корзинки фруктов ======================================//
+	/** Маска ёмкости ведра, занимает все свободные биты корзинки. */
+	private static final int mBurst   = (1<<fin+1) - 1;
+	/** Максимальная ёмкость ведра. */
+	public  static final int MaxBurst = mBurst;
+}
+
+
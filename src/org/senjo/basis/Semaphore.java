@@ -0,0 +1,177 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.basis;
+
+import static org.senjo.basis.Base.Illegal;
+import static org.senjo.basis.Helper.unsafe;
+
+import java.util.concurrent.TimeUnit;
+import org.senjo.annotation.*;
+
+/** Компактный семафор — ограничитель числа одновременно выполняемых действий. Аналог
+ * {@link java.util.concurrent.Semaphore}, но без графа объектов AQS: счётчик разрешений
+ * хранится прямо в битах корзинки, а ждущие потоки — в стеке {@link ABarrier}. Весь
+ * семафор занимает один небольшой объект, поэтому его можно заводить тысячами, например
+ * по одному на каждую удалённую точку подключения.
+ * <p/>
+ * Захват и возврат разрешений выполняются одной CAS-операцией над корзинкой. Возврат
+ * будит самых давних ждущих, чьи потребности умещаются в свободные разрешения; поток,
+ * которому их не хватает, пропускается, чтобы не задерживать потоки, которым хватило
+ * бы и остатка. Разбуженный поток, у которого разрешения успели перехватить, передаёт
+ * пробуждение дальше. Семафор нечестный: пришедший поток может захватить разрешение
+ * раньше разбуженного.
+ * <p/>
+ * Под счётчик отведено 29 бит корзинки, т.е. до {@link #MaxPermits} разрешений.
+ * 
+ *  Использование:<pre>
+ * limiter.acquire();                    // захватить разрешение, при нехватке ждать
+ * try { ...запрос к точке подключения... } finally { limiter.release(); }
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+@Synchronized public final class Semaphore extends ABarrier {
+	/** @param permits — начальное число разрешений, от 0 до {@link #MaxPermits}. */
+	public Semaphore(int permits) {
+		if (permits < 0 || permits > MaxPermits) throw Illegal(
+				"Permit count must be in range 0.." + MaxPermits + ": " + permits);
+		basket = permits; }
+
+	/** Текущее число свободных разрешений. */
+	@Synchronized public int availablePermits() { return maskSync(mPermits); }
+
+	/** Захватить одно разрешение. Если разрешений нет, то поток ждёт их возврата.
+	 * @throws InterruptedException — поток прерван до захвата разрешения. */
+	@Synchronized public void acquire() throws InterruptedException { acquire(1); }
+
+	/** Захватить несколько разрешений разом. Если разрешений не хватает, то поток ждёт
+	 * их возврата.
+	 * @throws InterruptedException — поток прерван до захвата разрешений. */
+	@Synchronized public void acquire(int permits) throws InterruptedException {
+		check(permits);
+		if (Thread.interrupted()) throw new InterruptedException();
+		doAcquire(permits, 0); }
+
+	/** Захватить одно разрешение. Прерывание потока не прекращает ожидание, но флаг
+	 * прерывания сохраняется. */
+	@Synchronized public void acquireUninterruptibly() { acquireUninterruptibly(1); }
+
+	/** Захватить несколько разрешений разом. Прерывание потока не прекращает ожидание,
+	 * но флаг прерывания сохраняется. */
+	@Looper public void acquireUninterruptibly(int permits) { check(permits);
+		for (boolean woken = false; !grab(permits); woken = true) {
+			if (woken) relay();
+			park(0, permits); } }
+
+	/** Захватить одно разрешение без ожидания.
+	 * @return true — разрешение захвачено; false — свободных разрешений нет. */
+	@Synchronized public boolean tryAcquire() { return grab(1); }
+
+	/** Захватить несколько разрешений разом без ожидания.
+	 * @return true — разрешения захвачены; false — свободных разрешений не хватает. */
+	@Synchronized public boolean tryAcquire(int permits) { check(permits);
+		return grab(permits); }
+
+	/** Захватить одно разрешение с таймаутом.
+	 * @return true — разрешение захвачено; false — разрешение не освободилось за время
+	 *         таймаута.
+	 * @throws InterruptedException — поток прерван до захвата разрешения. */
+	@Synchronized public boolean tryAcquire(long await, TimeUnit unit)
+			throws InterruptedException {
+		return tryAcquire(1, await, unit); }
+
+	/** Захватить несколько разрешений разом с таймаутом.
+	 * @return true — разрешения захвачены; false — разрешения не освободились за время
+	 *         таймаута.
+	 * @throws InterruptedException — поток прерван до захвата разрешений. */
+	@Synchronized public boolean tryAcquire(int permits, long await, TimeUnit unit)
+			throws InterruptedException {
+		check(permits);
+		if (Thread.interrupted()) throw new InterruptedException();
+		if (grab(permits)) return true;
+		long millis = unit.toMillis(await);
+		return millis > 0 && doAcquire(permits, System.currentTimeMillis() + millis); }
+
+	/** Вернуть одно разрешение. */
+	@Synchronized public void release() { release(1); }
+
+	/** Вернуть несколько разрешений разом. Разрешения не обязательно возвращает тот же
+	 * поток, который их захватил.
+	 * @throws IllegalStateException — число разрешений превысило {@link #MaxPermits}. */
+	@Synchronized public void release(int permits) { check(permits);
+		while (true) {
+			int basket = unsafe.getIntVolatile(this, offset);
+			if ((basket & mPermits) > MaxPermits - permits)
+				throw Illegal("Permit count overflow: " + Text.hashName(this));
+			if (unsafe.compareAndSwapInt(this, offset, basket, basket + permits)) break; }
+		if (waiting()) wake(); }
+
+	/** Захватить все свободные разрешения разом.
+	 * @return число захваченных разрешений. */
+	@Synchronized public int drainPermits() {
+		while (true) {
+			int basket = unsafe.getIntVolatile(this, offset), result = basket & mPermits;
+			if (result == 0 || unsafe.compareAndSwapInt(
+					this, offset, basket, basket & ~mPermits)) return result; } }
+
+	@Override public String toString() {
+		return Text.hashName(this) + "[permits=" + availablePermits() + ']'; }
+
+
+
+	private static void check(int permits) {
+		if (permits <= 0) throw new IllegalArgumentException(
+				"Permit count must be positive: " + permits); }
+
+	/** Захватить разрешения одной CAS-операцией, если их хватает. */
+	private boolean grab(int permits) {
+		while (true) {
+			int basket = unsafe.getIntVolatile(this, offset);
+			if ((basket & mPermits) < permits) return false;
+			if (unsafe.compareAndSwapInt(this, offset, basket, basket - permits))
+				return true; } }
+
+	/** Ждать и захватить разрешения.
+	 * @param wakeup — срок ожидания по {@link System#currentTimeMillis()}; 0 — без срока.
+	 * @return true — разрешения захвачены; false — истёк срок. */
+	@Looper private boolean doAcquire(int permits, long wakeup)
+			throws InterruptedException {
+		for (boolean woken = false; !grab(permits); woken = true) {
+			if (woken) relay();
+			if (wakeup != 0 && System.currentTimeMillis() >= wakeup) return false;
+			if (!parkInterruptibly(wakeup, permits)) return false; }
+		return true; }
+
+	/** Разбудить самых давних ждущих, чьи потребности умещаются в свободные разрешения.
+	 * Пропуск выполняется под пользовательским монитором {@link #Waking}. */
+	private void wake() {
+		try { grabSync(Waking);
+			unparkFitting(maskSync(mPermits));
+		} finally { takeSync(Waking); }
+		wakeDelayed(); }
+
+	/** Поток разбужен, но его разрешения перехватили. Если что-то осталось, то оно могло
+	 * предназначаться другим ждущим: передаём пробуждение им. Повторяется только после
+	 * чужого захвата разрешений, поэтому потоки не будят друг друга бесконечно. */
+	private void relay() { if (waiting() && maskSync(mPermits) != 0) wake(); }
+
+	@Override boolean ready(int need) { return maskSync(mPermits) >= need; }
+
+
+
+//======== Basket : Постоянные для корзинки фруктов ======================================//
+	private static final int fin = ABasketSync.fin-2;
+	/** Пользовательский монитор: кто-то пропускает ждущие потоки через барьер. */
+	private static final int Waking   = 1<<fin+2;
+	/** Маска счётчика свободных разрешений, занимает все младшие биты корзинки. */
+	private static final int mPermits = (1<<fin+1) - 1;
+	/** Максимальное число разрешений, которое может хранить семафор. */
+	public  static final int MaxPermits = mPermits;
+}
+
+
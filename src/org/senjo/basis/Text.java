@@ -7,11 +7,15 @@
  */
 package org.senjo.basis;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.*;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import org.senjo.annotation.*;
 import org.senjo.data.Phrase;
@@ -19,7 +23,7 @@ import org.senjo.data.Phrase;
 /** (временно сокращённая публичная версия библиотеки работы с текстом)
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version 2016, change 2018-10-12, release */
+ * @version 2016, change 2026-10-19, release */
 public final class Text {
 //======== Object into Text through reflection ===========================================//
 	private static final String NullText = "null";
@@ -47,7 +51,7 @@ public final class Text {
 	 * в {@link #SimpleTextContext}} и оборачивает его в одинарные кавычки, иначе возвращает
 	 * текст {@code null}. Также см. {@link #textEx(Object)}. */
 	public static @NotNull String text(@Nullable Object value) {
-		return inner_text(SimpleTextContext, null, value, SimpleTextContext.width); }
+		return inner_text(SimpleTextContext, null, null, value, SimpleTextContext.width); }
 //	/** Возвращает простое текстовое представление объекта. Если объект не существует,
 //	 * то возвращает текст из аргумента nullValue. */
 //	public static @Nullable String text(@Nullable Object value, @Nullable String nullValue) {
@@ -64,23 +68,48 @@ public final class Text {
 	 * значения его полей и подобъектов. Если объект не существует, то возвращает текст
 	 * {@code null} без кавычек. Использует указанный контекст обработки. */
 	public static @NotNull String textEx(@Nullable Object value, @NotNull Context context) {
-		StringBuilder result = new StringBuilder(48);
-		inner_text(context, result, value, context.width);
-		return result.toString(); }
+		return textEx(new StringBuilder(48), value, context).toString(); }
 
-	/** 
-	 * DELME Сомневаюсь, что такая функция будет востребована. Если понадобится,
-	 * то delme нужно убрать, иначе убрать саму функцию. */
+	/** Дописывает расширенное текстовое представление объекта в конец out без
+	 * промежуточной строки. Ограничение {@link Context#budget(int)} отсчитывается от
+	 * текущей длины out.
+	 * @param out — куда писать; null — новый буфер;
+	 * @param context — контекст обработки; null — контекст по умолчанию. */
 	public static @NotNull StringBuilder textEx( @Nullable StringBuilder out,
 			@Nullable Object value, @Nullable Context context ) {
 		if (out     == null) out     = new StringBuilder();
 		if (context == null) context = DefaultTextContext;
-		inner_text(context, out, value, context.width);
+		Trace trace = Trace.open(context, out, null);
+		try { inner_text(context, trace, out, value, context.width); trace.finish(out); }
+		finally { trace.close(); }
+		return out; }
+
+	/** Пишет расширенное текстовое представление объекта в поток символов, например
+	 * {@link java.io.Writer}. Текст собирается в переиспользуемом буфере потока
+	 * и сбрасывается в out частями, поэтому вывод большой структуры не держит её текст
+	 * в памяти целиком. Исключение — режим {@link Context#references(boolean)}: метки
+	 * ссылок дописываются задним числом, поэтому текст сбрасывается только в конце,
+	 * ограничить его стоит через {@link Context#budget(int)}.
+	 * @param context — контекст обработки; null — контекст по умолчанию.
+	 * @throws IOException — ошибка записи в out. */
+	public static @NotNull <A extends Appendable> A textEx( @NotNull A out,
+			@Nullable Object value, @Nullable Context context ) throws IOException {
+		if (out instanceof StringBuilder) {
+			textEx((StringBuilder)out, value, context); return out; }
+		if (context == null) context = DefaultTextContext;
+		Trace trace = Trace.open(context, null, out);
+		StringBuilder buffer = trace.buffer();
+		try {
+			inner_text(context, trace, buffer, value, context.width);
+			trace.finish(buffer);
+			trace.flush(buffer);
+		} catch (SinkFailure ex) { throw ex.getCause();
+		} finally { trace.close(); }
 		return out; }
 
-//TODO Добавить учёт повторения объектов, нет смысла выводить их по нескольку раз, можно опционально через Context!
 //XXX Возможно стоит вынести этот метод в отдельный класс...
-	private static String inner_text( @NotNull Context context,
+	/** @param trace — состояние вызова, обязательно при заданном out. */
+	private static String inner_text( @NotNull Context context, @Nullable Trace trace,
 			@Nullable StringBuilder out, @Nullable Object value, int width ) {
 		if (value == null)
 			if (out == null) return NullText; else out.append((String)null);
@@ -88,7 +117,7 @@ public final class Text {
 			if (out == null) return value.toString(); else out.append(value.toString());
 		else if (value instanceof String)
 			if (out == null) return '"' + (String)value + '"';
-			else out.append('"').append((String)value).append('"');
+			else trace.text(out.append('"'), (String)value).append('"');
 		else if (value instanceof Enum)
 			if (out == null) return value.getClass().getSimpleName() + '#' + value;
 			else out.append(value.getClass().getSimpleName()).append('#').append(value);
@@ -98,15 +127,16 @@ public final class Text {
 		else if (value instanceof Collection)
 			if (out == null) return '@' + value.getClass().getSimpleName() + '[' + ']';
 			else { //XXX Если width==0, то не нужно разбирать список, просто написать его тип
+				if (trace.refer(out, value)) return null;
 				out.append('[');
 				int limit = context.collectionLimit;
 				Iterator iterator = ((Iterable)value).iterator();
 				if (iterator.hasNext()) {
-					inner_text(context, out, iterator.next(), width-1);
+					inner_text(context, trace, out, iterator.next(), width-1);
 					while (iterator.hasNext()) {
 						out.append(',').append(' ');
-						if (--limit == 0) { out.append('…'); break; }
-						inner_text(context, out, iterator.next(), width); }
+						if (--limit == 0 || trace.over(out)) { out.append('…'); break; }
+						inner_text(context, trace, out, iterator.next(), width); }
 				}
 				out.append(']'); }
 		else {
@@ -114,42 +144,70 @@ public final class Text {
 			if (type.equals(Object.class)) if (out == null) return "@Object";
 				else { out.append("@Object"); return null; }
 
-			Method toStringMethod;
-			try { toStringMethod = type.getDeclaredMethod("toString"); }
-			catch (NoSuchMethodException ex) { toStringMethod = null; }
-			if (toStringMethod != null) if (out == null) return value.toString();
-				else { out.append('\'').append(value.toString()).append('\''); return null; }
+			Shape shape = Shapes.get(type);
+			if (shape.string) if (out == null) return value.toString();
+				else { trace.text(out.append('\''), value.toString()).append('\'');
+					return null; }
 
 			if (out == null) return '@' + value.getClass().getSimpleName();
 			if (context.depth <= 0 || width <= 0) {
 				out.append('@').append(value.getClass().getSimpleName()); return null; }
 
-			if (type.isArray()) {
+			if (trace.refer(out, value)) return null;
+			if (shape.array != 0) {
 				out.append('[');
 				int count = Array.getLength(value), limit = context.limitArray(count);
-				for (int index = 0; index < limit; ++index) {
+				int index;
+				for (index = 0; index < limit && !trace.over(out); ++index) {
 					if (index > 0) out.append(',').append(' ');
-					inner_text(context, out, Array.get(value, index), width-1); }
-				if (limit != count) out.append(',').append(' ').append('…');
+					// Примитивы выводятся без упаковки, так же как их обёртки
+					switch (shape.array) {
+					case 'Z': out.append(((boolean[])value)[index]); break;
+					case 'B': out.append(((byte   [])value)[index]); break;
+					case 'S': out.append(((short  [])value)[index]); break;
+					case 'I': out.append(((int    [])value)[index]); break;
+					case 'J': out.append(((long   [])value)[index]); break;
+					case 'F': out.append(((float  [])value)[index]); break;
+					case 'D': out.append(((double [])value)[index]); break;
+					case 'C': out.append('\'').append(((char[])value)[index]).append('\'');
+						break;
+					default : inner_text(context, trace, out, ((Object[])value)[index],
+							width-1); } }
+				if (index != count) {
+					if (index != 0) out.append(',').append(' ');
+					out.append('…'); }
 				out.append(']'); return null; }
 
 			char delimiter = 0;
 			out.append('{');
 			int l_depth = context.depth;
 			do {
-				Field[] fields = type.getDeclaredFields();
-				Field.setAccessible(fields, true);
-				for (Field field : fields) {
-					if (Modifier.isStatic(field.getModifiers())) continue;
+				Field[] fields = shape.fields;
+				for (int index = 0; index != fields.length; ++index) {
+					if (trace.over(out)) { l_depth = 0; break; }
 					if (delimiter != 0) out.append(delimiter).append(' ');
 					delimiter = ',';
+					Field field = fields[index];
 					out.append(field.getName()).append(':').append(' ');
-					try { inner_text(context, out, field.get(value), width-1); }
-					catch (IllegalAccessException ex) { out.append("<no access>"); }
+					try { switch (shape.kinds[index]) {
+						case 'Z': out.append(field.getBoolean(value)); break;
+						case 'B': out.append(field.getByte   (value)); break;
+						case 'S': out.append(field.getShort  (value)); break;
+						case 'I': out.append(field.getInt    (value)); break;
+						case 'J': out.append(field.getLong   (value)); break;
+						case 'F': out.append(field.getFloat  (value)); break;
+						case 'D': out.append(field.getDouble (value)); break;
+						case 'C': out.append('\'').append(field.getChar(value)).append('\'');
+							break;
+						case 'L': inner_text(context, trace, out, field.get(value), width-1);
+							break;
+						default : throw new IllegalAccessException(); }
+					} catch (IllegalAccessException ex) { out.append("<no access>"); }
 				}
+				if (l_depth == 0) break;
 				if (delimiter != 0) delimiter = ';';
-				type = type.getSuperclass();
-				if (type.equals(Object.class)) break;
+				if (shape.parent == null) break;
+				shape = shape.parent;
 			} while (--l_depth > 0);
 			if (l_depth <= 0) {
 				if (delimiter != 0) out.append(delimiter).append(' ');
@@ -158,6 +216,189 @@ public final class Text {
 		return null;
 	}
 
+	/** Устройство класса для {@link #textEx(Object)}: объявлен ли в нём метод toString,
+	 * вид элементов массива и собственные нестатические поля. Разбирается через отражение
+	 * один раз на класс и хранится в {@link ClassValue}, поэтому повторный вывод объектов
+	 * того же класса не ищет методы, не копирует массивы полей и не открывает к ним
+	 * доступ заново. */
+	private static final class Shape {
+		/** Класс сам объявляет метод {@link Object#toString()}. */
+		final boolean string;
+		/** Вид элементов массива по {@link #kind(Class)}; 0 — класс не массив. */
+		final char array;
+		final Field[] fields;
+		/** Вид каждого поля по {@link #kind(Class)}; 0 — поле недоступно. */
+		final char[] kinds;
+		/** Устройство родительского класса; null — родитель {@link Object}. */
+		final Shape parent;
+
+		Shape(Class<?> type) {
+			boolean string;
+			try { type.getDeclaredMethod("toString"); string = true; }
+			catch (NoSuchMethodException ex) { string = false; }
+			this.string = string;
+			this.array  = type.isArray() ? kind(type.getComponentType()) : 0;
+			int count = 0;
+			Field[] fields = type.getDeclaredFields();
+			for (Field field : fields)
+				if (!Modifier.isStatic(field.getModifiers())) fields[count++] = field;
+			this.fields = fields = Arrays.copyOf(fields, count);
+			this.kinds = new char[count];
+			for (int index = 0; index != count; ++index) try {
+				fields[index].setAccessible(true);
+				kinds[index] = kind(fields[index].getType());
+			} catch (RuntimeException ex) { /* Модуль не открыт: поле недоступно */ }
+			Class<?> parent = type.getSuperclass();
+			this.parent = parent == null || parent.equals(Object.class) ? null
+					: Shapes.get(parent); }
+
+		/** Вид значения: буква примитивного типа по сигнатурам JVM или 'L' для ссылки. */
+		static char kind(Class<?> type) {
+			if (!type.isPrimitive()) return 'L';
+			if (type == int    .class) return 'I';
+			if (type == long   .class) return 'J';
+			if (type == boolean.class) return 'Z';
+			if (type == double .class) return 'D';
+			if (type == char   .class) return 'C';
+			if (type == byte   .class) return 'B';
+			if (type == short  .class) return 'S';
+			return 'F'; }
+	}
+
+	private static final ClassValue<Shape> Shapes = new ClassValue<Shape>() {
+		@Override protected Shape computeValue(Class<?> type) { return new Shape(type); } };
+
+	/** Состояние одного вызова {@link #textEx(Object, Context)}: граница бюджета вывода,
+	 * поток символов для сброса текста и учёт уже развёрнутых объектов по идентичности.
+	 * Без бюджета, потока и учёта ссылок используется общий пустой экземпляр, иначе —
+	 * экземпляр потока, чьи буфер и карта объектов переиспользуются между вызовами.
+	 * Вложенный вызов, например из toString выводимого объекта, получает свой
+	 * экземпляр. */
+	private static final class Trace {
+		/** Длина вывода, после которой разбор прекращается. */
+		private int limit = Integer.MAX_VALUE;
+		/** Поток символов, куда сбрасывается буфер, и сколько символов уже сброшено. */
+		private Appendable sink;
+		private int flushed;
+		private StringBuilder buffer;
+		/** Развёрнутые объекты: позиция начала в выводе и номер метки, 0 — без метки. */
+		private IdentityHashMap<Object, int[]> seen, map;
+		private int labels;
+		/** Метки ссылок, ещё не вписанные в вывод: позиция в старших 32 битах, номер —
+		 * в младших; marked — сколько символов они займут. Вписываются одним проходом
+		 * в {@link #finish(StringBuilder)}, а до этого учитываются в бюджете. */
+		private long[] marks;
+		private int marked;
+
+		/** @param out — буфер вывода; null — вывод в поток sink через {@link #buffer()}. */
+		static Trace open(Context context, StringBuilder out, Appendable sink) {
+			if (sink == null && context.budget <= 0
+					&& context.empty(Context.TrackReferences)) return Unbounded;
+			Trace result = Traces.get();
+			if (result != null) Traces.set(null); else result = new Trace();
+			int start = out != null ? out.length() : 0;
+			result.limit = context.budget > 0
+					? (int)Math.min((long)start + context.budget, Integer.MAX_VALUE)
+					: Integer.MAX_VALUE;
+			result.sink = sink;
+			if (context.exist(Context.TrackReferences)) {
+				if (result.map == null) result.map = new IdentityHashMap<Object, int[]>();
+				result.seen = result.map; }
+			return result; }
+
+		void close() {
+			if (this == Unbounded) return;
+			if (seen != null) { seen.clear(); seen = null; }
+			labels = 0; marked = 0; sink = null; flushed = 0;
+			if (buffer != null)
+				if (buffer.capacity() > Retain) buffer = null; else buffer.setLength(0);
+			Traces.set(this); }
+
+		StringBuilder buffer() {
+			return buffer != null ? buffer : (buffer = new StringBuilder(Flush + 256)); }
+
+		/** Вывод достиг бюджета. Попутно сбрасывает накопленный буфер в поток. */
+		boolean over(StringBuilder out) {
+			if (sink != null && seen == null && out.length() >= Flush) flush(out);
+			return flushed + out.length() + marked >= limit; }
+
+		/** Сбросить буфер в поток, если текст в нём не выходит за бюджет. */
+		void flush(StringBuilder out) {
+			if (flushed + out.length() > limit) return;
+			try { sink.append(out); }
+			catch (IOException ex) { throw new SinkFailure(ex); }
+			flushed += out.length();
+			out.setLength(0); }
+
+		/** Дописать текст, обрезав его по бюджету. */
+		StringBuilder text(StringBuilder out, String text) {
+			int room = limit - flushed - out.length() - marked;
+			return text.length() <= room ? out.append(text)
+					: out.append(text, 0, Math.max(room, 0)); }
+
+		/** Обрезать вывод ровно по бюджету, последний символ заменить троеточием. Любой
+		 * обрыв вывода дописывает хотя бы закрывающий символ или троеточие сверх бюджета,
+		 * поэтому вывод, уложившийся в бюджет точно, не обрезается. */
+		void finish(StringBuilder out) {
+			splice(out);
+			int excess = flushed + out.length() - limit;
+			if (excess <= 0 || limit == Integer.MAX_VALUE) return;
+			out.setLength(Math.max(out.length() - excess - 1, 0));
+			out.append('…'); }
+
+		/** Отметить начало вывода объекта. Если объект уже выводился в этом вызове, то
+		 * вместо него записывается ссылка {@code @ref#N}, а к его первому выводу задним
+		 * числом приписывается метка {@code #N}: её позиция запоминается, а сама метка
+		 * вписывается при завершении вывода.
+		 * @return true — записана ссылка, объект выводить не нужно. */
+		boolean refer(StringBuilder out, Object value) {
+			if (seen == null) return false;
+			int[] entry = seen.get(value);
+			if (entry == null) {
+				seen.put(value, new int[] { out.length(), 0 }); return false; }
+			if (entry[1] == 0) {
+				int label = entry[1] = ++labels;
+				if (marks == null) marks = new long[8];
+				else if (label > marks.length) marks = Arrays.copyOf(marks, label*2);
+				marks[label-1] = (long)entry[0] << 32 | label;
+				++marked;
+				for (; label != 0; label /= 10) ++marked; }
+			out.append("@ref#").append(entry[1]);
+			return true; }
+
+		/** Вписать отложенные метки ссылок в вывод одним проходом: хвост вывода от первой
+		 * метки копируется и дописывается обратно вперемешку с метками. */
+		private void splice(StringBuilder out) {
+			if (labels == 0) return;
+			Arrays.sort(marks, 0, labels);
+			int start = (int)(marks[0] >>> 32), length = out.length();
+			char[] tail = new char[length - start];
+			out.getChars(start, length, tail, 0);
+			out.setLength(start);
+			out.ensureCapacity(length + marked);
+			int from = 0;
+			for (int index = 0; index != labels; ++index) {
+				long mark = marks[index];
+				int to = (int)(mark >>> 32) - start;
+				out.append(tail, from, to - from).append('#').append((int)mark);
+				from = to; }
+			out.append(tail, from, tail.length - from);
+			labels = 0; marked = 0; }
+
+		/** Размер буфера, при котором он сбрасывается в поток. */
+		private static final int Flush  = 8192;
+		/** Больший буфер не хранится до следующего вызова. */
+		private static final int Retain = 65536;
+		private static final Trace Unbounded = new Trace();
+		private static final ThreadLocal<Trace> Traces = new ThreadLocal<Trace>();
+	}
+
+	/** Сбой записи в поток символов. Отдельный класс, чтобы не спутать его
+	 * с {@link UncheckedIOException} из toString выводимого объекта. */
+	private static final class SinkFailure extends UncheckedIOException {
+		private static final long serialVersionUID = 1L;
+		SinkFailure(IOException cause) { super(cause); } }
+
 
 	public static final Context Context() { return DefaultTextContext.clone(); }
 	public static final Context DefaultTextContext = new Context();
@@ -174,6 +415,8 @@ public final class Text {
 		private short arrayLimit      = 64;
 		/** Ограничение на отображаемое количество элементов из любой коллекции */
 		private short collectionLimit = 64;
+		/** Ограничение длины вывода одного вызова в символах; 0 — без ограничения */
+		private int budget;
 //		/** Ограничение на отображаемое количество элементов из карты */
 //		private short mapLimit        = 24;
 //		/** Автоматический перенос строк, ширина текста */
@@ -213,6 +456,16 @@ public final class Text {
 //			if (width > 0) { push(FormatMultiline); lineWidth = (short)width; }
 //			else take(FormatMultiline);
 //			return this; }
+		/** Ограничение длины вывода одного вызова в символах, 0 — без ограничения. Когда
+		 * вывод достигает его, разбор прекращается, а вывод обрезается ровно по
+		 * ограничению и заканчивается троеточием. */
+		public Context budget    (int limit) { budget = Math.max(limit, 0); return this; }
+		/** Учёт ссылок: объект, который уже выводился в этом вызове (общий подобъект или
+		 * цикл), не разворачивается повторно, вместо него пишется ссылка {@code @ref#N},
+		 * а его первый вывод помечается {@code #N}. Вместе с {@link #budget(int)}
+		 * ограничивает время и объём вывода графов объектов. */
+		public Context references(boolean enabled) {
+			turn(TrackReferences, enabled); return this; }
 		public Context multiline (boolean enabled) {
 			turn(FormatMultiline, enabled); return this; }
 
@@ -265,6 +518,8 @@ public final class Text {
 //		/** Выводить размер перебираемого объекта, если он больше заданного
 //		 * в {@link iterationCountHide} */
 //		private static final int IterationCount      = 1 <<10;
+		/** Учитывать уже выведенные объекты и писать на них ссылки */
+		private static final int TrackReferences     = 1 <<11;
 	}
 //^^^^^^^^ Object into Text ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^//
 
@@ -344,55 +599,21 @@ public final class Text {
 			float align, char space ) {
 		int textLength = text.length();
 		if (textLength == length || !crop && length < textLength) return text;
-
-		int left = (int)((length - textLength) * align), right = left+textLength;
-		if (left <= 0 && length <= right) return text.substring(-left, -left + length);
-
-		final char[] result = new char[length], textData = text.toCharArray();
-
-		for (int index = 0; index < length; index++)
-			result[index] = left <= index && index < right
-					? textData[index - left] : space;
-		return new String(result);
-	}
+		return Formats.align(new StringBuilder(length), text, length, crop, align, space)
+				.toString(); }
 
 	public static String align(int length) { return align(length, ' '); }
 	public static String align(int length, char space) {
-		final char[] result = new char[length];
-		while (--length >= 0) result[length] = space;
-		return new String(result); }
+		return Formats.fill(new StringBuilder(length), length, space).toString(); }
 
 //^^^^^^^^ Text alingment ^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^//
 
 
 
-	private static char[] mark = new char[] {' ','k','M','G','T','P','E','Z','Y'};
+	/** Короткое число ровно в пять символов с приставкой СИ, см.
+	 * {@link Formats#shortNumber(StringBuilder, long)}. */
 	public static String shortNumber(final long value) {
-		if (value < 0) return " ??? ";
-		int charCount = 0;
-		long l_value = value;
-		while (l_value != 0) { l_value /= 10; charCount++; }
-
-		l_value = value;
-		int index = 4;
-		final char[] result = new char[5];
-		result[index] = mark[(charCount-1) / 3];
-		if (charCount <= 3) {
-			do {
-				result[--index] = (char)('0' + l_value % 10);
-				l_value /= 10;
-			} while (l_value != 0);
-			while (--index >= 0) result[index] = ' ';
-		} else {
-			for (int i = charCount - 4; i >= 0; i--) l_value /= 10;
-			int point = (charCount-1) % 3 + 1;
-			while (--index >= 0) if (point != index) {
-				result[index] = (char)('0' + l_value % 10);
-				l_value /= 10;
-			} else result[index] = '.';
-		}
-		return new String(result);
-	}
+		return Formats.shortNumber(new StringBuilder(5), value).toString(); }
 
 	public static Phrase phrase() { return new Phrase(); }
 	public static Phrase phrase(String text) { return new Phrase().add(text); }
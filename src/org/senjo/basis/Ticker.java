@@ -7,10 +7,6 @@
  */
 package org.senjo.basis;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
-
 /** Простейший класс для замера и журналирования времени выполнения некоторого алгоритма.
  * Пример использования:
  * <pre>
@@ -19,27 +15,30 @@ import java.util.Locale;
  * Log.trace("Code done " + ticker); // Выведет в журнал: "Code done (1,23ms)"</pre>
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version 2018, change 2018-10-12, release */
+ * @version 2018, change 2026-10-19, release */
 public final class Ticker {
-	private static DecimalFormat format = new DecimalFormat( "(#,##0.00ms)",
-			DecimalFormatSymbols.getInstance(Locale.ROOT) );
-
-// Format создаёт алгоритм разбора не во время создания, а во время первого исполнения
-	static { format.format(1.23f); } // Исполняем фиктивный разбор сразу
-
 	private long tick;
 	public Ticker() { reset(); }
 
 	public void reset() { tick = System.nanoTime(); }
 	@Override public String toString() { return toString(tick); }
 
+	/** Дописывает в out время от создания или сброса до текущего момента вида "(1,23ms)"
+	 * без выделения памяти. */
+	public StringBuilder toString(StringBuilder out) {
+		return Formats.tick(out, System.nanoTime() - tick); }
+
 	/** Формирует строку вида "(1,23ms)" с временем от указанного до текущего момента. */
 	public static String toString(long nanoStart) {
-		return format.format( (System.nanoTime() - nanoStart) / 1000000f ); }
+		return toStringEx(System.nanoTime() - nanoStart); }
 
 	/** Формирует строку вида "(1,23ms)" с промежутком времени указанным в аргументе. */
 	public static String toStringEx(long nano) {
-		return format.format( nano / 1000000f ); }
+		return Formats.tick(new StringBuilder(16), nano).toString(); }
+
+	/** Дописывает в out промежуток времени вида "(1,23ms)" без выделения памяти. */
+	public static StringBuilder toStringEx(StringBuilder out, long nano) {
+		return Formats.tick(out, nano); }
 }
 
 
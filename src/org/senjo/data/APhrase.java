@@ -8,12 +8,11 @@
 package org.senjo.data;
 
 import static org.senjo.basis.Base.Illegal;
-import static org.senjo.basis.Helper.vandal;
 
 import org.senjo.annotation.*;
 import org.senjo.basis.ABasket;
+import org.senjo.basis.Formats;
 import org.senjo.basis.Text;
-import org.senjo.basis.Ticker;
 
 /** Основное назначение данного механизма — это правильные окончания слов в фразах
  * с переменными числами (метод {@link #form(int, String)}).
@@ -23,7 +22,7 @@ import org.senjo.basis.Ticker;
  * и без конфигов.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2019-03-14, beta */
+ * @version create 2019-03-14, change 2026-10-19, beta */
 @SuppressWarnings("unchecked")
 public abstract class APhrase<This extends APhrase, Result> extends ABasket {
 	private final StringBuilder out;
@@ -41,14 +40,26 @@ public abstract class APhrase<This extends APhrase, Result> extends ABasket {
 	public final This add(long   value) { out.append(value); return (This)this; }
 	public final This hex(int value) {
 		out.append(Integer.toHexString(value)); return (This)this; }
+	/** Дописать аргументы по формату {@link String#format(String, Object...)}. Формат
+	 * компилируется и кэшируется, см. {@link PhraseFormat}. Перегрузок для примитивов
+	 * здесь нет намеренно: byte и short ушли бы в int и %x вывел бы их 32 битами;
+	 * форматы без упаковки — у самого {@link PhraseFormat}. */
 	public final This format(String format, Object ... args) {
-		out.append(String.format(format, args)); return (This)this; }
+		PhraseFormat.of(format).append(out, args); return (This)this; }
 	public final This div(char ch) { if (!push(Divider)) out.append(ch); return (This)this; }
 	public final This div(char ch1, char ch2) {
 		if (!push(Divider)) out.append(ch1).append(ch2); return (This)this; }
 	public final This rediv() { take(Divider); return (This)this; }
 	public final This hashName(Object target) {
 		Text.hashName(out, target); return (This)this; }
+	/** Дописать расширенное текстовое представление объекта {@link Text#textEx(Object)}
+	 * прямо в фразу, без промежуточной строки. */
+	public final This textEx(Object value) {
+		Text.textEx(out, value, null); return (This)this; }
+	/** Дописать расширенное текстовое представление объекта с указанным контекстом,
+	 * например с ограничением {@link Text.Context#budget(int)}. */
+	public final This textEx(Object value, Text.Context context) {
+		Text.textEx(out, value, context); return (This)this; }
 
 	public final This put(String text) {
 		if (text != null) out.append(text); return (This)this; }
@@ -103,33 +114,15 @@ public abstract class APhrase<This extends APhrase, Result> extends ABasket {
 	 * подсолнухов».<br/>
 	 * Использование: {@code #form(count, "Созрел[|и] [@] подсолнух[|а|ов]")}
 	 * @param number — число, по отношению к которому нужно поставить окончание;
-	 * @param format — формат определяет часть фразы с указанием всех окончаний слов. */
+	 * @param format — формат определяет часть фразы с указанием всех окончаний слов;
+	 *        разобранный формат кэшируется, см. {@link PhraseTemplate#of(String)}. */
 	public final This form(long number, @NotNull String format) {
-		int code;
-		{	long value = number >= 0 ? number : -number;
-			int mod = (int)(value % 10);
-			code = (mod-1 & ~3) != 0 || (value%100 & ~7) == 8 ? 2 : mod == 1 ? 0 : 1; }
-
-		char[] data = vandal.disembowel(format);
-		int start = 0, cell = 0, write = 0;
-		boolean opened = false;
-		for (int index = 0, stop = data.length; index != stop; ++index) {
-			char ch = data[index];
-			if (opened) {
-				switch (ch) {
-				case ']': if (write == 0) { index = start; write = 1; }
-				          else opened = false;
-				          break;
-				case '@': out.append(number); write = 2; break;
-				case '|': start = index; ++cell;
-				          if (write != 0 || cell == code) ++write; break;
-				default:  if (write == 1) out.append(ch); }
-			} else if (ch == '[') { opened = true;
-				start = index; cell = 0; write = code == 0 ? 1 : 0;
-			} else out.append(ch);
-		}
-		return (This)this;
-	}
+		PhraseTemplate.of(format).append(out, number); return (This)this; }
+
+	/** Строит числовую фразу по скомпилированному шаблону template, который несёт
+	 * и правило выбора формы слова, например {@link PhraseTemplate#English}. */
+	public final This form(long number, @NotNull PhraseTemplate template) {
+		template.append(out, number); return (This)this; }
 
 	/** Добавляет текст в зависимости от значения установленного числа. Если число
 	 * в диапазоне от min до max, то подставляет текст под индексом value-min,
@@ -145,7 +138,7 @@ public abstract class APhrase<This extends APhrase, Result> extends ABasket {
 	}
 
 	public final This tick(long nano) {
-		out.append(Ticker.toStringEx(nano)); return (This)this; }
+		Formats.tick(out, nano); return (This)this; }
 
 	public final Result end() { return apply(out); }
 	public final Result end(String text) { return apply(out.append(text)); }
@@ -0,0 +1,378 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.data;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import org.senjo.annotation.*;
+
+/** Скомпилированный формат в стиле {@link String#format(String, Object...)} для метода
+ * {@link APhrase#format(String, Object...)}. Формат разбирается один раз, а вывод пишется
+ * прямо в {@link StringBuilder} фразы без {@link Formatter}, регулярных выражений
+ * и промежуточных строк. Перегрузки для одного аргумента int, long, double и т.д.
+ * обходятся без упаковки числа в объект.
+ * <p/>
+ * Быстро выводится частое подмножество: {@code %s}, {@code %d}, {@code %x}, {@code %X},
+ * {@code %f} с шириной, точностью и флагами {@code -}, {@code 0}, {@code +}, пробел,
+ * {@code ,} (и {@code #} для {@code %x}), а также {@code %%} и {@code %n}. Результат
+ * совпадает с {@link String#format(String, Object...)} символ в символ, включая
+ * разделители локали по умолчанию. Аргумент, который быстрый вывод не умеет (например
+ * {@link java.math.BigDecimal} или {@link Formattable}), выводится через
+ * {@link Formatter} только для своего поля, а формат вне подмножества целиком
+ * передаётся в {@link String#format(String, Object...)} с теми же исключениями.
+ * <p/>
+ * Метод {@link #of(String)} кэширует форматы по идентичности строки формата и локали,
+ * как {@link PhraseTemplate#of(String)}. Формат неизменяемый и потокобезопасный.
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public final class PhraseFormat {
+	private final String format;
+	private final Locale locale;
+	/** Текст перед каждым полем и после последнего; null — формат вне подмножества. */
+	private final String[] texts;
+	private final Spec[] specs;
+	/** Разделители локали: дробной части, групп разрядов и размер группы. */
+	private final char point, separator;
+	private final int group;
+
+	private PhraseFormat(String format, Locale locale) {
+		this.format = format; this.locale = locale;
+		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+		boolean us = locale.equals(Locale.US);
+		point = us ? '.' : symbols.getDecimalSeparator();
+		NumberFormat number = us ? null : NumberFormat.getNumberInstance(locale);
+		if (us) { separator = ','; group = 3; }
+		else if (number instanceof DecimalFormat && number.isGroupingUsed()) {
+			separator = symbols.getGroupingSeparator();
+			group = ((DecimalFormat)number).getGroupingSize();
+		} else { separator = '\0'; group = 0; }
+
+		ArrayList<String> texts = new ArrayList<String>();
+		ArrayList<Spec> specs = new ArrayList<Spec>();
+		if (symbols.getZeroDigit() == '0' && compile(texts, specs)) {
+			this.texts = texts.toArray(new String[texts.size()]);
+			this.specs = specs.toArray(new Spec[specs.size()]);
+		} else { this.texts = null; this.specs = null; } }
+
+	/** Формат из кэша для локали по умолчанию, как у {@link String#format},
+	 * либо новый. */
+	public static @NotNull PhraseFormat of(@NotNull String format) {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		int slot = System.identityHashCode(format) & Cache.length-1;
+		PhraseFormat result = Cache[slot];
+		if (result == null || result.format != format || result.locale != locale
+				&& !result.locale.equals(locale))
+			Cache[slot] = result = new PhraseFormat(format, locale);
+		return result; }
+
+	/** Скомпилировать формат для указанной локали в обход кэша. */
+	public static @NotNull PhraseFormat compile(@NotNull String format,
+			@NotNull Locale locale) {
+		return new PhraseFormat(format, locale); }
+
+	public @NotNull String format() { return format; }
+	public @NotNull Locale locale() { return locale; }
+
+	/** Формат целиком укладывается в быстрое подмножество. */
+	public boolean isCompiled() { return specs != null; }
+
+	/** Дописать в out форматированные аргументы. При исключении out не меняется. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, Object ... args) {
+		if (specs == null) return out.append(String.format(locale, format, args));
+		int start = out.length();
+		try {
+			for (int index = 0; index != specs.length; ++index) {
+				out.append(texts[index]);
+				if (args != null && index >= args.length)
+					throw new MissingFormatArgumentException(specs[index].text);
+				print(out, specs[index], args != null ? args[index] : null); }
+			return out.append(texts[specs.length]);
+		} catch (RuntimeException ex) { out.setLength(start); throw ex; } }
+
+	/** Дописать в out формат с одним аргументом int без упаковки. Аргументы byte
+	 * и short тоже приходят сюда, поэтому {@code %x} выводит их 32 битами. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, int value) {
+		if (!single()) return append(out, new Object[] { value });
+		return append(out, value, 32); }
+
+	/** Дописать в out формат с одним аргументом long без упаковки. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, long value) {
+		if (!single()) return append(out, new Object[] { value });
+		return append(out, value, 64); }
+
+	/** Дописать в out формат с одним аргументом double без упаковки. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, double value) {
+		if (!single()) return append(out, new Object[] { value });
+		return append(out, value, false); }
+
+	/** Дописать в out формат с одним аргументом float: {@code %f} без упаковки,
+	 * а {@code %s} выводит его как float, а не как расширенный double. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, float value) {
+		if (!single()) return append(out, new Object[] { value });
+		return append(out, value, true); }
+
+	/** Дописать в out формат с одним аргументом char; без этой перегрузки символ
+	 * расширился бы до int и вывелся кодом. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, char value) {
+		return append(out, new Object[] { value }); }
+
+	@Override public String toString() { return format; }
+
+
+
+	private boolean single() { return specs != null && specs.length == 1; }
+
+	private StringBuilder append(StringBuilder out, long value, int bits) {
+		int start = out.length();
+		try {
+			Spec spec = specs[0];
+			out.append(texts[0]);
+			switch (spec.conversion) {
+			case 'd': decimal(out, spec, value); break;
+			case 'x': case 'X': hex(out, spec, value, bits); break;
+			default: print(out, spec, bits == 64 ? (Object)value : (Object)(int)value); }
+			return out.append(texts[1]);
+		} catch (RuntimeException ex) { out.setLength(start); throw ex; } }
+
+	private StringBuilder append(StringBuilder out, double value, boolean single) {
+		int start = out.length();
+		try {
+			Spec spec = specs[0];
+			out.append(texts[0]);
+			boolean finite = !Double.isNaN(value) && !Double.isInfinite(value);
+			if (spec.conversion == 'f' && finite) real(out, spec, value);
+			else print(out, spec, single ? (Object)(float)value : (Object)value);
+			return out.append(texts[1]);
+		} catch (RuntimeException ex) { out.setLength(start); throw ex; } }
+
+	/** Вывести поле spec для произвольного аргумента. */
+	private void print(StringBuilder out, Spec spec, Object arg) {
+		switch (spec.conversion) {
+		case 's':
+			if (arg instanceof Formattable) break;
+			String text = arg != null ? arg.toString() : "null";
+			int length = text.length();
+			if (spec.precision >= 0 && spec.precision < length) length = spec.precision;
+			int pad = spec.width - length;
+			if (pad > 0 && (spec.flags & Left) == 0) fill(out, pad, ' ');
+			out.append(text, 0, length);
+			if (pad > 0 && (spec.flags & Left) != 0) fill(out, pad, ' ');
+			return;
+		case 'd':
+			if (arg instanceof Integer || arg instanceof Long || arg instanceof Short
+					|| arg instanceof Byte) {
+				decimal(out, spec, ((Number)arg).longValue()); return; }
+			break;
+		case 'x': case 'X':
+			int bits = arg instanceof Integer ? 32 : arg instanceof Long ? 64
+					: arg instanceof Short ? 16 : arg instanceof Byte ? 8 : 0;
+			if (bits != 0) { hex(out, spec, ((Number)arg).longValue(), bits); return; }
+			break;
+		case 'f':
+			if (arg instanceof Double || arg instanceof Float) {
+				double value = ((Number)arg).doubleValue();
+				if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+					real(out, spec, value); return; } }
+			break; }
+		// Редкий аргумент выводим стандартным форматом, но только для этого поля
+		new Formatter(out, locale).format(spec.text, arg); }
+
+	/** Целое десятичное число; считаем в отрицательных числах, чтобы не терять
+	 * {@link Long#MIN_VALUE}. */
+	private void decimal(StringBuilder out, Spec spec, long value) {
+		boolean negative = value < 0;
+		if (!negative) value = -value;
+		int digits = 1;
+		while (digits != Pow10.length && value <= -Pow10[digits]) ++digits;
+		int groups = (spec.flags & Group) != 0 ? (digits-1) / group : 0;
+		int pad = spec.width - digits - groups - (sign(spec, negative) ? 1 : 0);
+		if (pad > 0 && (spec.flags & (Left|Zero)) == 0) fill(out, pad, ' ');
+		if (sign(spec, negative))
+			out.append(negative ? '-' : (spec.flags & Plus) != 0 ? '+' : ' ');
+		if (pad > 0 && (spec.flags & Zero) != 0) fill(out, pad, '0');
+		for (int place = digits - 1; place >= 0; --place) {
+			out.append((char)('0' - value / Pow10[place] % 10));
+			if (groups != 0 && place != 0 && place % group == 0) out.append(separator); }
+		if (pad > 0 && (spec.flags & Left) != 0) fill(out, pad, ' '); }
+
+	/** Шестнадцатеричное число без знака шириной bits бит. */
+	private static void hex(StringBuilder out, Spec spec, long value, int bits) {
+		if (bits != 64) value &= (1L << bits) - 1;
+		int digits = Math.max((67 - Long.numberOfLeadingZeros(value)) / 4, 1);
+		boolean prefix = (spec.flags & Alternate) != 0;
+		char[] alphabet = spec.conversion == 'X' ? UpperHex : LowerHex;
+		int pad = spec.width - digits - (prefix ? 2 : 0);
+		if (pad > 0 && (spec.flags & (Left|Zero)) == 0) fill(out, pad, ' ');
+		if (prefix) out.append('0').append(spec.conversion);
+		if (pad > 0 && (spec.flags & Zero) != 0) fill(out, pad, '0');
+		for (int shift = digits*4 - 4; shift >= 0; shift -= 4)
+			out.append(alphabet[(int)(value >>> shift) & 15]);
+		if (pad > 0 && (spec.flags & Left) != 0) fill(out, pad, ' '); }
+
+	/** Конечное вещественное число с фиксированной точкой. Как и {@link Formatter},
+	 * округляет половину вверх кратчайшую десятичную запись числа
+	 * {@link Double#toString(double)}, а не его точное двоичное значение. */
+	private void real(StringBuilder out, Spec spec, double value) {
+		boolean negative = Double.compare(value, 0.0) < 0; // Учитывает и -0.0
+		int precision = spec.precision >= 0 ? spec.precision : 6;
+
+		// Разбираем десятичные цифры числа: value = mantissa * 10^(exponent - count)
+		String text = Double.toString(Math.abs(value));
+		long mantissa = 0;
+		int count = 0, exponent = 0, index = 0, length = text.length();
+		boolean fraction = false;
+		for (; index != length; ++index) {
+			char ch = text.charAt(index);
+			if (ch == '.') fraction = true;
+			else if (ch == 'E') break;
+			else if (mantissa != 0 || ch != '0') {
+				if (count < 18) { mantissa = mantissa * 10 + (ch - '0'); ++count; }
+				if (!fraction) ++exponent;
+			} else if (fraction) --exponent; }
+		if (index != length) { // Научная запись "1.5E-7"
+			boolean minus = text.charAt(++index) == '-';
+			int power = 0;
+			for (index += minus ? 1 : 0; index != length; ++index)
+				power = power * 10 + text.charAt(index) - '0';
+			exponent += minus ? -power : power; }
+		if (mantissa == 0) exponent = 0;
+
+		// Округляем половину вверх до precision знаков: value = mantissa / 10^scale
+		int keep = exponent + precision, scale;
+		if (keep < count) {
+			if (keep < 0) mantissa = 0;
+			else {
+				long rest = mantissa / Pow10[count - keep - 1];
+				mantissa = rest / 10 + (rest % 10 >= 5 ? 1 : 0); }
+			scale = precision;
+		} else scale = count - exponent;
+
+		int digits = 1;
+		while (digits != Pow10.length && mantissa >= Pow10[digits]) ++digits;
+		int whole = Math.max(digits - scale, 1);
+		int groups = (spec.flags & Group) != 0 ? (whole-1) / group : 0;
+		int pad = spec.width - whole - groups - (precision != 0 ? precision + 1 : 0)
+				- (sign(spec, negative) ? 1 : 0);
+		if (pad > 0 && (spec.flags & (Left|Zero)) == 0) fill(out, pad, ' ');
+		if (sign(spec, negative))
+			out.append(negative ? '-' : (spec.flags & Plus) != 0 ? '+' : ' ');
+		if (pad > 0 && (spec.flags & Zero) != 0) fill(out, pad, '0');
+		for (int place = whole - 1; place >= -precision; --place) {
+			if (place == -1) out.append(point);
+			int digit = place + scale;
+			out.append(digit >= 0 && digit < digits
+					? (char)('0' + mantissa / Pow10[digit] % 10) : '0');
+			if (groups != 0 && place > 0 && place % group == 0) out.append(separator); }
+		if (pad > 0 && (spec.flags & Left) != 0) fill(out, pad, ' '); }
+
+	private static boolean sign(Spec spec, boolean negative) {
+		return negative || (spec.flags & (Plus|Space)) != 0; }
+
+	private static void fill(StringBuilder out, int count, char space) {
+		while (--count >= 0) out.append(space); }
+
+	/** Разобрать формат в поля и тексты между ними.
+	 * @return false — формат вне быстрого подмножества или ошибочный. */
+	private boolean compile(ArrayList<String> texts, ArrayList<Spec> specs) {
+		StringBuilder text = new StringBuilder();
+		int index = 0, length = format.length();
+		while (index != length) {
+			char ch = format.charAt(index++);
+			if (ch != '%') { text.append(ch); continue; }
+			int begin = index - 1, flags = 0, width = -1, precision = -1;
+
+			// Явный номер аргумента "%2$s" не поддерживаем
+			int scan = index;
+			while (scan != length && Character.isDigit(format.charAt(scan))) ++scan;
+			if (scan != length && format.charAt(scan) == '$') return false;
+
+			for (int flag; index != length
+					&& (flag = FlagChars.indexOf(format.charAt(index))) >= 0; ++index) {
+				if ((flags & 1 << flag) != 0) return false;
+				flags |= 1 << flag; }
+			if (index != length && isDigit(format.charAt(index))) {
+				width = 0;
+				while (index != length && isDigit(format.charAt(index))) {
+					if (width >= 100000) return false;
+					width = width * 10 + format.charAt(index++) - '0'; } }
+			if (index != length && format.charAt(index) == '.') {
+				if (++index == length || !isDigit(format.charAt(index))) return false;
+				precision = 0;
+				while (index != length && isDigit(format.charAt(index))) {
+					if (precision >= 100000) return false;
+					precision = precision * 10 + format.charAt(index++) - '0'; } }
+			if (index == length) return false;
+			char conversion = format.charAt(index++);
+
+			if (conversion == '%' || conversion == 'n') {
+				if (flags != 0 || width >= 0 || precision >= 0) return false;
+				if (conversion == '%') text.append('%');
+				else text.append(System.lineSeparator());
+				continue; }
+			// Ошибочные сочетания флагов оставляем стандартному формату с исключением
+			if ((flags & (Left|Zero)) != 0 && width < 0) return false;
+			if ((flags & (Left|Zero)) == (Left|Zero)) return false;
+			if ((flags & (Plus|Space)) == (Plus|Space)) return false;
+			int allowed;
+			switch (conversion) {
+			case 's': allowed = Left; break;
+			case 'd': allowed = Left|Zero|Plus|Space|Group; break;
+			case 'x': case 'X': allowed = Left|Zero|Alternate; break;
+			case 'f': allowed = Left|Zero|Plus|Space|Group; break;
+			default: return false; }
+			if ((flags & ~allowed) != 0) return false;
+			if (precision >= 0 && conversion != 's' && conversion != 'f') return false;
+			if ((flags & Group) != 0 && group <= 0) return false;
+
+			texts.add(text.toString()); text.setLength(0);
+			specs.add(new Spec(conversion, flags, width, precision,
+					format.substring(begin, index))); }
+		texts.add(text.toString());
+		return true; }
+
+	private static boolean isDigit(char ch) { return ch >= '0' && ch <= '9'; }
+
+	/** Флаги поля в порядке строки {@link #FlagChars}. */
+	private static final int Left = 1, Alternate = 2, Plus = 4, Space = 8, Zero = 16,
+			Group = 32;
+	private static final String FlagChars = "-#+ 0,(<";
+	private static final char[] LowerHex = "0123456789abcdef".toCharArray();
+	private static final char[] UpperHex = "0123456789ABCDEF".toCharArray();
+	private static final long[] Pow10 = new long[19];
+	static {
+		Pow10[0] = 1;
+		for (int index = 1; index != Pow10.length; ++index)
+			Pow10[index] = Pow10[index-1] * 10; }
+
+	/** Размер кэша форматов, степень двойки. */
+	private static final PhraseFormat[] Cache = new PhraseFormat[256];
+
+
+
+	/** Разобранное поле формата. */
+	private static final class Spec {
+		final char conversion;
+		final int flags, width, precision;
+		/** Исходный текст поля для стандартного {@link Formatter}. */
+		final String text;
+
+		Spec(char conversion, int flags, int width, int precision, String text) {
+			this.conversion = conversion; this.flags = flags;
+			this.width = width; this.precision = precision; this.text = text; }
+	}
+}
+
+
+
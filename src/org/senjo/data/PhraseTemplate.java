@@ -0,0 +1,147 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.data;
+
+import static org.senjo.basis.Base.Illegal;
+
+import java.util.ArrayList;
+import org.senjo.annotation.*;
+
+/** Скомпилированный формат числовой фразы {@link APhrase#form(long, String)}. Формат
+ * разбирается один раз: для каждой формы слова заранее собирается таблица кусков текста,
+ * между которыми подставляется число. Вывод фразы — несколько добавлений кусков,
+ * выбранных по номеру формы числа, без повторного разбора формата.
+ * <p/>
+ * Формат: текст вне скобок выводится как есть; {@code [a|b|c]} — окончания для каждой
+ * формы по порядку, если окончаний меньше, чем форм, то для старших форм берётся
+ * последнее; {@code @} внутри скобок — само число. Номер формы для числа задаёт правило
+ * {@link Rule}: по умолчанию русское {@link #Russian} с единственным, двойственным
+ * и множественным числом, есть также английское {@link #English}, а свои правила легко
+ * добавить.
+ * <p/>
+ * Метод {@link #of(String)} кэширует шаблоны по идентичности строки формата, поэтому
+ * для строковых констант разбор происходит один раз. Кэш маленький и вытесняющий,
+ * поэтому динамически собранные форматы его не раздувают. Шаблон неизменяемый
+ * и потокобезопасный.
+ * 
+ *  Использование:<pre>
+ * PhraseTemplate Ripe = PhraseTemplate.of("Созрел[|и] [@] подсолнух[|а|ов]");
+ * phrase.form(count, Ripe);
+ * </pre>
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+public final class PhraseTemplate {
+	private final String format;
+	private final Rule rule;
+	/** Куски текста для каждой формы; между соседними кусками подставляется число. */
+	private final String[][] forms;
+
+	private PhraseTemplate(String format, Rule rule) {
+		this.format = format; this.rule = rule;
+		int count = rule.forms();
+		if (count <= 0) throw Illegal("Rule must have at least one form: " + count);
+		forms = new String[count][];
+		for (int code = 0; code != count; ++code) forms[code] = compile(format, code); }
+
+	/** Шаблон формата по русскому правилу из кэша, либо новый. */
+	public static @NotNull PhraseTemplate of(@NotNull String format) {
+		return of(format, Russian); }
+
+	/** Шаблон формата по указанному правилу из кэша, либо новый. */
+	public static @NotNull PhraseTemplate of(@NotNull String format, @NotNull Rule rule) {
+		int slot = System.identityHashCode(format) & Cache.length-1;
+		PhraseTemplate result = Cache[slot];
+		if (result == null || result.format != format || result.rule != rule)
+			Cache[slot] = result = new PhraseTemplate(format, rule);
+		return result; }
+
+	/** Скомпилировать шаблон формата по указанному правилу в обход кэша. */
+	public static @NotNull PhraseTemplate compile(@NotNull String format,
+			@NotNull Rule rule) {
+		return new PhraseTemplate(format, rule); }
+
+	public @NotNull String format() { return format; }
+	public @NotNull Rule rule() { return rule; }
+
+	/** Дописать в out фразу для числа number. */
+	public @NotNull StringBuilder append(@NotNull StringBuilder out, long number) {
+		String[] pieces = forms[rule.form(number)];
+		out.append(pieces[0]);
+		for (int index = 1; index != pieces.length; ++index)
+			out.append(number).append(pieces[index]);
+		return out; }
+
+	/** Фраза для числа number. */
+	public @NotNull String toString(long number) {
+		return append(new StringBuilder(format.length() + 8), number).toString(); }
+
+	@Override public String toString() { return format; }
+
+
+
+	/** Разбор формата для формы code. Повторяет посимвольный разбор, которым раньше
+	 * пользовался {@link APhrase#form(long, String)}, но вместо числа отмечает границу
+	 * куска. */
+	private static String[] compile(String format, int code) {
+		ArrayList<String> result = new ArrayList<String>(2);
+		StringBuilder piece = new StringBuilder(format.length());
+		int start = 0, cell = 0, write = 0;
+		boolean opened = false;
+		for (int index = 0, stop = format.length(); index != stop; ++index) {
+			char ch = format.charAt(index);
+			if (opened) {
+				switch (ch) {
+				case ']': if (write == 0) { index = start; write = 1; }
+				          else opened = false;
+				          break;
+				case '@': result.add(piece.toString()); piece.setLength(0);
+				          write = 2; break;
+				case '|': start = index; ++cell;
+				          if (write != 0 || cell == code) ++write; break;
+				default:  if (write == 1) piece.append(ch); }
+			} else if (ch == '[') { opened = true;
+				start = index; cell = 0; write = code == 0 ? 1 : 0;
+			} else piece.append(ch);
+		}
+		result.add(piece.toString());
+		return result.toArray(new String[result.size()]); }
+
+	/** Размер кэша шаблонов, степень двойки. */
+	private static final PhraseTemplate[] Cache = new PhraseTemplate[256];
+
+
+
+	/** Правило выбора формы слова по числу. */
+	public interface Rule {
+		/** Число различных форм слова. */
+		int forms();
+		/** Номер формы слова для числа number: от 0 до {@link #forms()}-1. */
+		int form(long number);
+	}
+
+	/** Русское правило: 0 — единственное число (1, 21, 101), 1 — двойственное (2..4,
+	 * 22..24), 2 — множественное (0, 5..20, 25..30). Знак числа не учитывается. */
+	public static final Rule Russian = new Rule() {
+		@Override public int forms() { return 3; }
+		@Override public int form(long number) {
+			if (number < 0) number = -number;
+			int mod = (int)(number % 10);
+			return (mod-1 & ~3) != 0 || (number%100 & ~7) == 8 ? 2 : mod == 1 ? 0 : 1; }
+		@Override public String toString() { return "Russian"; } };
+
+	/** Английское правило: 0 — единственное число (1 и -1), 1 — множественное. */
+	public static final Rule English = new Rule() {
+		@Override public int forms() { return 2; }
+		@Override public int form(long number) {
+			return number == 1 || number == -1 ? 0 : 1; }
+		@Override public String toString() { return "English"; } };
+}
+
+
+
@@ -21,7 +21,7 @@ import org.senjo.basis.Ticker;
  * Тесты разных подходов проводились одновременно.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2018-02-12, change 2019-02-25, candidate */
+ * @version create 2018-02-12, change 2026-10-19, candidate */
 public final class BasketEngine {
 	public static final int doOffset(Class type, String fieldName) {
 		return unsafeOffset(type, fieldName); }
@@ -153,30 +153,30 @@ public final class BasketEngine {
 	/** Синхронно проверить, в состоянии корзинки owner/offset один из флагов mask
 	 * присутствует */
 	public static final boolean doExistSync(Object owner, int offset, int mask) {
-		int basket = unsafe.getInt(owner, (long)offset);
+		int basket = unsafe.getIntVolatile(owner, (long)offset);
 		return (basket & mask) != 0; }
 	/** Синхронно проверить, в состоянии корзинки owner/offset все флаги mask отсутствуют */
 	public static final boolean doEmptySync(Object owner, int offset, int mask) {
-		int basket = unsafe.getInt(owner, (long)offset);
+		int basket = unsafe.getIntVolatile(owner, (long)offset);
 		return (basket & mask) == 0; }
 	/** Синхронно проверить, в состоянии корзинки owner/offset все флаги mask присутствуют*/
 	public static final boolean doEverySync(Object owner, int offset, int mask) {
-		int basket = unsafe.getInt(owner, (long)offset);
+		int basket = unsafe.getIntVolatile(owner, (long)offset);
 		return (basket & mask) == mask; }
 	/** Синхронно проверить, в состоянии корзинки owner/offset наличие всех флагов mask
 	 * соответствует состоянию model */
 	public static final boolean doEverySync(Object owner, int offset, int mask, int model) {
-		int basket = unsafe.getInt(owner, (long)offset);
+		int basket = unsafe.getIntVolatile(owner, (long)offset);
 		return (basket & mask) == model; }
 	/** Синхронно проверить, в состоянии корзинки owner/offset все флаги emptyMask
 	 * отсутствуют и все флаги everyMask присутствуют */
 	public static final boolean doStateSync( Object owner, int offset,
 			int emptyMask, int everyMask ) {
-		int basket = unsafe.getInt(owner, (long)offset);
+		int basket = unsafe.getIntVolatile(owner, (long)offset);
 		return (basket & (emptyMask|everyMask)) == everyMask; }
 	/** Синхронно вернуть из корзинки owner/offset текущие состояния флагов из mask */
 	public static final int     doMaskSync (Object owner, int offset, int mask) {
-		int basket = unsafe.getInt(owner, (long)offset);
+		int basket = unsafe.getIntVolatile(owner, (long)offset);
 		return basket & mask; }
 
 
@@ -246,6 +246,10 @@ public final class BasketEngine {
 		 * переключаться на другой поток, нужно ждать пока mutex не будет освобождён. */
 		int miss = -AllowableParkCount;
 		long tick = System.nanoTime();
+		/* Виртуальный поток паркой на 1нс не освобождает поток-носитель, а держатель
+		 * монитора может как раз ждать свободного носителя. Поэтому он уступает носитель
+		 * через Thread#yield, который для виртуальных потоков снимает их с носителя. */
+		boolean virtual = isVirtual(Thread.currentThread());
 		do {
 			update = unsafe.getIntVolatile(owner, offset);
 			if ((update & monitor) == 0) {
@@ -265,7 +269,8 @@ public final class BasketEngine {
 					else fault("DEADLOCK" + suffix, vandal.cutStackTop(new Throwable(), 3));
 					miss = 0x10000000|cycles; }
 			} else ++miss;
-			unsafe.park(false, 1); // Парковка на 1 наносекунду (минимально)
+			if (virtual) Thread.yield();
+			else unsafe.park(false, 1); // Парковка на 1 наносекунду (минимально)
 		} while (true);
 	}
 
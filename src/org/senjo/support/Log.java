@@ -16,7 +16,7 @@ import org.senjo.data.APhrase;
  * используется ядром системы для записей в журнал пользователя.
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2018-01-20, change 2019-03-05, fix 2019-03-14 */
+ * @version create 2018-01-20, change 2019-03-05, fix 2026-10-19 */
 public abstract class Log {
 	/** Предел задаётся жёстко в самом начале и должен помочь интерпретатору выбрасывать
 	 * часть кода, которая из-за этой константы никогда не будет выполняться. */
@@ -57,8 +57,8 @@ public abstract class Log {
 		log(level, secret.getStackTraceElement(new Throwable(), depth+1), message, error); }
 	public final void log(Level level, int depth, String message, boolean trace) {
 		if (!need(level)) return;
-		Throwable ex = trace ? new Stack(depth+1) : new Throwable();
-		log(level, secret.getStackTraceElement(ex, depth+1), message, trace ? ex : null); }
+		log(level, secret.getStackTraceElement(new Throwable(), depth+1), message,
+				trace ? new Stack(depth+1) : null); }
 
 	public final boolean need(Level level) {
 		final int rate = level.ordinal(); return rate <= limit && rate <= mode; }
@@ -141,7 +141,7 @@ public abstract class Log {
 		private Buffer(Level level, int depth, boolean trace, Throwable ex) { super(64);
 			this.level = level;
 			this.ex    = trace ? new Stack(depth+2) : ex;
-			this.point = secret.getStackTraceElement(trace ? ex : new Throwable(), depth+2);
+			this.point = secret.getStackTraceElement(new Throwable(), depth+2);
 		}
 
 		@Override protected Void apply(CharSequence data) {
@@ -183,6 +183,10 @@ public abstract class Log {
 
 		@Override public StackTraceElement[] getStackTrace() {
 			if (stack != null) return stack;
+			if (!secret.isNative()) { // Секреты недоступны, режем полную копию стека
+				StackTraceElement[] full = super.getStackTrace();
+				return this.stack = java.util.Arrays.copyOfRange(
+						full, Math.min(cutDepth, full.length), full.length); }
 
 			int depth = secret.getStackTraceDepth(this);
 			StackTraceElement[] result = new StackTraceElement[depth - cutDepth];
@@ -194,6 +198,11 @@ public abstract class Log {
 			this.stack = stack; }
 
 		public void printStack(StringBuilder out) {
+			if (!secret.isNative()) {
+				out.append("trace:");
+				for (StackTraceElement item : getStackTrace())
+					out.append("\tat ").append(item).append('\n');
+				return; }
 			int depth = secret.getStackTraceDepth(this);
 			out.append("trace:");
 			for (int index = cutDepth; index != depth; ++index) out.append("\tat ")
@@ -0,0 +1,56 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.AdaptQueue;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UAdaptQueue {
+
+	@Test void testOrder() {
+		AdaptQueue<Integer> queue = new AdaptQueue<>(32);
+		for (int index = 0; index != 20; ++index)
+			assertTrue(queue.offer(index), "Offer fault");
+		assertEquals(20, queue.size(), "Size fault");
+		for (int index = 0; index != 20; ++index)
+			assertEquals(index, (int)queue.poll(), "Order fault");
+		assertNull(queue.poll(), "Poll empty fault");
+		assertTrue(queue.isEmpty(), "Empty fault");
+	}
+
+	@Test void testCapacity() {
+		AdaptQueue<String> queue = new AdaptQueue<>(2);
+		assertTrue (queue.offer("a"), "Offer #1 fault");
+		assertTrue (queue.offer("b"), "Offer #2 fault");
+		assertFalse(queue.offer("c"), "Offer over capacity fault");
+		assertFalse(queue.offer("c", 20), "Offer timeout fault");
+		assertEquals("a", queue.poll(), "Poll fault");
+		assertNull(new AdaptQueue<String>(1).poll(20), "Poll timeout fault");
+	}
+
+	@Test void testHandoff() throws InterruptedException {
+		final AdaptQueue<Integer> queue = new AdaptQueue<>(4);
+		final int count = 10000;
+		final long[] sum = new long[1];
+		Thread consumer = new Thread(() -> {
+			for (int index = 0; index != count; ++index) sum[0] += queue.take(); });
+		consumer.start();
+		for (int index = 0; index != count; ++index) queue.put(index);
+		consumer.join(10000);
+		assertFalse(consumer.isAlive(), "Consumer hangs fault");
+		assertEquals((long)count * (count-1) / 2, sum[0], "Handoff sum fault");
+	}
+}
+
+
@@ -0,0 +1,74 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.BarrierStats;
+import org.senjo.basis.Latch;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, change 2026-10-19 */
+class UBarrierStats {
+
+	@Test void testCounters() throws Exception {
+		Latch latch = new Latch(1);
+		BarrierStats.enable(true);
+		try {
+			BarrierStats stats = latch.watch("test");
+			BarrierStats.Snapshot before = BarrierStats.of(Latch.class).snapshot();
+			assertFalse(latch.await(5, TimeUnit.MILLISECONDS), "Await closed fault");
+			Thread thread = new Thread(latch::awaitUninterruptibly);
+			thread.start();
+			while (stats.getWaiting() == 0) Thread.sleep(1);
+			latch.countDown();
+			thread.join(1000);
+			assertTrue(latch.await(0, TimeUnit.MILLISECONDS), "Fast pass fault");
+
+			BarrierStats.Snapshot result = stats.snapshot();
+			assertEquals(0, result.getWaiting (), "Waiting fault" );
+			assertEquals(1, result.getPasses  (), "Passes fault"  );
+			assertEquals(1, result.getTimeouts(), "Timeouts fault");
+			long count = 0;
+			for (long value : result.getHistogram()) count += value;
+			assertEquals(2, count, "Histogram fault");
+			assertTrue(result.getP99WaitNanos() >= 2000000, "Percentile fault");
+			assertEquals(before.getPasses() + 1,
+					BarrierStats.of(Latch.class).getPasses(), "Class passes fault");
+			ObjectName name = new ObjectName("org.senjo.basis:type=Barrier,class="
+					+ ObjectName.quote(Latch.class.getName()) + ",name=\"test\"");
+			assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+					"JMX fault");
+			latch.unwatch();
+			assertNull(latch.stats(), "Unwatch fault");
+		} finally { BarrierStats.enable(false); }
+	}
+
+	@Test void testClassNames() throws Exception {
+		Class<?> anonymous = new Object() { }.getClass();
+		Class<?>[] types = { First.Holder.class, Second.Holder.class, anonymous };
+		for (Class<?> type : types) {
+			BarrierStats.of(type);
+			ObjectName name = new ObjectName("org.senjo.basis:type=Barrier,class="
+					+ ObjectName.quote(type.getName()));
+			assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+					"JMX " + type.getName() + " fault"); }
+	}
+
+	/** Два класса с одинаковым простым именем Holder. */
+	private static final class First  { static final class Holder { } }
+	private static final class Second { static final class Holder { } }
+}
+
+
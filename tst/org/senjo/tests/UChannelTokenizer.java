@@ -0,0 +1,79 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.ChannelTokenizer;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UChannelTokenizer {
+
+	@Test void testCsv() throws Exception {
+		String source = "id,name,note\r\n"
+				+ "1,\"Иванов, Иван\",\"он сказал \"\"да\"\"\"\r\n"
+				+ "2,日本,\"две\nстроки\"\n"
+				+ "3,😀,\n"
+				+ "\n"
+				+ "4,,last";
+		// Маленький буфер, чтобы лексемы и символы UTF-8 разрывались между чтениями
+		try (ChannelTokenizer csv = new ChannelTokenizer(channel(source), ',', '"', 5)) {
+			List<String> tokens = new ArrayList<String>();
+			List<Integer> ends = new ArrayList<Integer>();
+			while (csv.next()) {
+				tokens.add(csv.item().toString());
+				if (csv.isLineEnd()) ends.add(csv.line() * 10 + csv.column()); }
+			assertEquals(Arrays.asList("id", "name", "note", "1", "Иванов, Иван",
+					"он сказал \"да\"", "2", "日本", "две\nстроки", "3", "😀", "", "",
+					"4", "", "last"), tokens, "Tokens fault");
+			assertEquals(Arrays.asList(2, 12, 22, 32, 40, 52), ends, "Lines fault");
+			assertFalse(csv.next(), "Finish fault"); }
+	}
+
+	@Test void testSplit() throws Exception {
+		byte[] wrong = { 'a', (byte)0xD0, '|', (byte)0xFF, 'b', '\n' };
+		try (ChannelTokenizer split = ChannelTokenizer.split(
+				Channels.newChannel(new ByteArrayInputStream(wrong)), '|')) {
+			assertTrue(split.next(), "Next fault");
+			assertEquals("a�", split.item().toString(), "Broken tail fault");
+			assertTrue(split.next(), "Next fault");
+			assertEquals("�b", split.item().toString(), "Broken lead fault");
+			assertTrue(split.isLineEnd(), "Line end fault");
+			assertFalse(split.next(), "Finish fault"); }
+
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index != 1000; ++index) builder.append(index).append('\t');
+		try (ChannelTokenizer split = ChannelTokenizer.split(
+				channel(builder.toString()), '\t')) {
+			for (int index = 0; index != 1000; ++index) {
+				assertTrue(split.next(), "Next fault");
+				assertEquals(Integer.toString(index), split.item().toString(),
+						"Token fault"); }
+			// Завершающий разделитель даёт пустую лексему
+			assertTrue(split.next(), "Tail fault");
+			assertEquals(0, split.item().length(), "Tail length fault");
+			assertFalse(split.next(), "Finish fault"); }
+	}
+
+	private static ReadableByteChannel channel(String text) {
+		return Channels.newChannel(new ByteArrayInputStream(
+				text.getBytes(StandardCharsets.UTF_8))); }
+}
+
+
@@ -0,0 +1,79 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.CyclicBarrier;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UCyclicBarrier {
+
+	/** Ни один участник не должен уйти на следующий круг, пока не соберутся все. */
+	@Test void testRounds() throws InterruptedException {
+		final int parties = 6, rounds = 500;
+		CyclicBarrier barrier = new CyclicBarrier(parties);
+		AtomicInteger arrived = new AtomicInteger(), fault = new AtomicInteger();
+		AtomicInteger last = new AtomicInteger();
+		Thread[] threads = new Thread[parties];
+		for (int index = 0; index != parties; ++index) {
+			threads[index] = new Thread(() -> {
+				for (int round = 0; round != rounds; ++round) {
+					arrived.incrementAndGet();
+					if (barrier.awaitUninterruptibly() == 0) last.incrementAndGet();
+					if (arrived.get() < parties*(round+1)) fault.incrementAndGet(); } });
+			threads[index].start(); }
+		for (Thread thread : threads) thread.join(30000);
+		for (Thread thread : threads) assertFalse(thread.isAlive(), "Barrier hangs fault");
+		assertEquals(0, fault.get(), "Early pass fault");
+		assertEquals(rounds, last.get(), "Last arrival index fault");
+		assertEquals(0, barrier.getNumberWaiting(), "Waiting after rounds fault");
+	}
+
+	/** Повторные arrive() завершают несколько кругов, пока ждущий поток не проснулся:
+	 * он должен пройти, а не встать в ожидание чужого круга. */
+	@Test void testRepeatedArrive() throws InterruptedException {
+		for (int round = 0; round != 100; ++round) {
+			CyclicBarrier barrier = new CyclicBarrier(2);
+			AtomicInteger result = new AtomicInteger(-2);
+			Thread thread = new Thread(() -> { try {
+				result.set(barrier.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException ex) { } });
+			thread.start();
+			while (barrier.getNumberWaiting() == 0) Thread.yield();
+			assertEquals(0, barrier.arrive(), "First round arrive fault");
+			assertEquals(1, barrier.arrive(), "Second round arrive fault");
+			assertEquals(0, barrier.arrive(), "Second round last arrive fault");
+			thread.join(5000);
+			assertFalse(thread.isAlive(), "Repeated arrive hangs fault");
+			assertEquals(1, result.get(), "Repeated arrive index fault");
+			assertEquals(0, barrier.getNumberWaiting(), "Repeated arrive count fault");
+		}
+	}
+
+	/** Ушедший по таймауту участник отменяет свой приход. */
+	@Test void testTimeout() throws InterruptedException {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		assertEquals(-1, barrier.await(20, TimeUnit.MILLISECONDS), "Timeout fault");
+		assertEquals(0, barrier.getNumberWaiting(), "Withdraw fault");
+		Thread thread = new Thread(barrier::awaitUninterruptibly);
+		thread.start();
+		while (barrier.getNumberWaiting() == 0) Thread.yield();
+		assertEquals(0, barrier.arrive(), "Arrive fault");
+		thread.join(1000);
+		assertFalse(thread.isAlive(), "Pass after arrive fault");
+	}
+}
+
+
@@ -0,0 +1,310 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import java.util.PrimitiveIterator;
+import org.senjo.basis.AEnumerator;
+import org.senjo.basis.DoubleEnumerator;
+import org.senjo.basis.IntEnumerator;
+import org.senjo.basis.Latch;
+import org.senjo.basis.LongEnumerator;
+import org.senjo.basis.PrefetchEnumerator;
+import org.senjo.basis.Ticker;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, change 2026-10-19 */
+class UEnumerator {
+	private static final boolean NOBENCH = true;
+
+	@Test void testStream() {
+		Integer[] values = values(10000);
+		AEnumerator<Integer> source = AEnumerator.makeMultiple(values);
+		Spliterator<Integer> split = source.spliterator();
+		assertTrue(split.hasCharacteristics(Spliterator.SIZED), "Sized fault");
+		assertEquals(10000, split.getExactSizeIfKnown(), "Size fault");
+		assertNotNull(split.trySplit(), "Split fault");
+
+		assertEquals(sum(10000), AEnumerator.makeMultiple(values).stream(true)
+				.mapToLong(Integer::longValue).sum(), "Parallel sum fault");
+		assertEquals(AEnumerator.makeMultiple(values).stream().collect(Collectors.toList()),
+				AEnumerator.makeMultiple(values).stream(true).collect(Collectors.toList()),
+				"Parallel order fault");
+
+		AEnumerator<Integer> started = AEnumerator.makeMultiple(values);
+		started.next(); started.next();
+		assertEquals(9998, started.stream().count(), "Remain fault");
+		assertEquals(0, AEnumerator.makeEmpty().stream(true).count(), "Empty fault");
+	}
+
+	@Test void testWalker() {
+		ArrayWalker walker = new ArrayWalker(values(10000));
+		assertEquals(sum(10000), walker.stream(true).mapToLong(Integer::longValue)
+				.sum(), "Parallel sum fault");
+		assertTrue(walker.forks > 0, "Fork fault");
+		assertEquals(10000, walker.reset().stream(true).count(), "Restart fault");
+
+		ArrayWalker blind = new ArrayWalker(values(5000));
+		blind.sized = false;
+		assertFalse(blind.spliterator().hasCharacteristics(Spliterator.SIZED),
+				"Sized fault");
+		assertEquals(sum(5000), blind.reset().stream(true).mapToLong(Integer::longValue)
+				.sum(), "Batch sum fault");
+	}
+
+	@Test void testBatch() {
+		Integer[] values = values(10), buffer = new Integer[4];
+		AEnumerator<Integer> source = AEnumerator.makeMultiple(values);
+		assertTrue(source.next(), "Next fault");
+		assertEquals(4, source.nextBatch(buffer), "Batch count fault");
+		assertArrayEquals(new Integer[] { 1, 2, 3, 4 }, buffer, "Batch fault");
+		assertEquals(4, source.index(), "Batch index fault");
+		assertEquals(4, (int)source.item(), "Batch item fault");
+		assertEquals(4, source.nextBatch(buffer), "Batch count fault");
+		assertEquals(1, source.nextBatch(buffer, 1, 3), "Tail count fault");
+		assertEquals(9, (int)buffer[1], "Tail fault");
+		assertFalse(source.next(), "Finish fault");
+		assertEquals(0, source.nextBatch(buffer), "Finished batch fault");
+
+		ListEnumerator list = new ListEnumerator(Arrays.asList(values));
+		assertFalse(list.isEmpty(), "Empty fault");
+		assertEquals(4, list.nextBatch(buffer), "List batch count fault");
+		assertArrayEquals(new Integer[] { 0, 1, 2, 3 }, buffer, "List batch fault");
+		List<Integer> rest = new ArrayList<>();
+		list.forEachRemaining(rest::add);
+		assertEquals(Arrays.asList(values).subList(4, 10), rest, "Remaining fault");
+	}
+
+	@Test void testPrimitive() {
+		int[] values = new int[10000];
+		for (int index = 0; index != values.length; ++index) values[index] = index;
+		IntEnumerator.Walker ints = IntEnumerator.of(values);
+		assertTrue(ints.seek(5), "Seek fault");
+		assertEquals(5, ints.intItem(), "Item fault");
+		int[] buffer = new int[3];
+		assertEquals(3, ints.nextBatch(buffer), "Batch count fault");
+		assertArrayEquals(new int[] { 6, 7, 8 }, buffer, "Batch fault");
+		assertEquals(8, ints.index(), "Batch index fault");
+		assertEquals(9991, ints.intStream().count(), "Remain fault");
+		assertEquals(sum(10000), ints.reset().intStream(true).asLongStream().sum(),
+				"Parallel sum fault");
+
+		PrimitiveIterator.OfLong longs = LongEnumerator.of(3L, 4L).longIterator();
+		assertEquals(3L, longs.nextLong(), "Iterator fault");
+		assertTrue(longs.hasNext(), "Iterator next fault");
+		assertEquals(4L, longs.nextLong(), "Iterator fault");
+		assertFalse(longs.hasNext(), "Iterator finish fault");
+
+		DoubleEnumerator doubles = DoubleEnumerator.of(0.5, 1.5, 2.5);
+		assertEquals(4.5, doubles.doubleStream().sum(), "Double sum fault");
+		assertEquals(0, DoubleEnumerator.of().doubleStream(true).count(), "Empty fault");
+
+		// Интерфейс, реализованный напрямую, без AEnumerator
+		assertEquals(sum(5000), new Counter(5000, true).intStream(true).asLongStream().sum(),
+				"Direct parallel sum fault");
+		assertEquals(5000, new Counter(5000, false).intStream().count(),
+				"Direct unsized count fault");
+		PrimitiveIterator.OfInt direct = new Counter(2, true).intIterator();
+		assertEquals(0, direct.nextInt(), "Direct iterator fault");
+		assertEquals(1, direct.nextInt(), "Direct iterator fault");
+		assertFalse(direct.hasNext(), "Direct iterator finish fault");
+	}
+
+	/** Перечислитель чисел от 0 до size-1, реализующий интерфейс напрямую. */
+	private static final class Counter implements IntEnumerator {
+		private final int size;
+		private final boolean sized;
+		private int index = -1;
+		Counter(int size, boolean sized) { this.size = size; this.sized = sized; }
+		@Override public boolean next() { return index < size && ++index < size; }
+		@Override public int index() { return index; }
+		@Override public int size(int fake) { return sized ? size : fake; }
+		@Override public int intItem() { return index; }
+	}
+
+	@Test void testOperators() {
+		Integer[] values = values(20);
+		AEnumerator<String> mapped = AEnumerator.makeMultiple(values)
+				.filter(item -> item % 2 == 0).filter(item -> item > 4)
+				.map(item -> item * 10).map(String::valueOf);
+		assertEquals(Arrays.asList("60", "80", "100"), mapped.limit(3).stream()
+				.collect(Collectors.toList()), "Filter and map fault");
+
+		AEnumerator<Integer> sized = AEnumerator.makeMultiple(values).map(item -> item)
+				.skip(5).limit(10);
+		assertEquals(10, sized.size(-1), "Size fault");
+		assertEquals(Arrays.asList(5, 6, 7), sized.takeWhile(item -> item < 8).stream()
+				.collect(Collectors.toList()), "Skip and take fault");
+
+		AEnumerator<Integer> flat = AEnumerator.makeMultiple(1, 2, 3).flatMap(
+				count -> AEnumerator.makeMultiple(values).limit(count)).distinct();
+		assertEquals(Arrays.asList(0, 1, 2), flat.stream().collect(Collectors.toList()),
+				"Flat map and distinct fault");
+
+		AEnumerator<String> zipped = AEnumerator.makeMultiple("a", "b", "c")
+				.zip(AEnumerator.makeMultiple(values), (text, number) -> text + number);
+		assertEquals(3, zipped.size(-1), "Zip size fault");
+		assertEquals(Arrays.asList("a0", "b1", "c2"), zipped.stream()
+				.collect(Collectors.toList()), "Zip fault");
+
+		AEnumerator.Walker<String> walker = new ArrayWalker(values).skip(10).limit(5)
+				.map(item -> "#" + item);
+		assertEquals(5, walker.size(-1), "Walker size fault");
+		assertTrue(walker.seek(3), "Walker seek fault");
+		assertEquals("#13", walker.item(), "Walker item fault");
+		assertFalse(walker.seek(5), "Walker fence fault");
+		assertTrue(walker.prev(), "Walker back fault");
+		assertEquals("#14", walker.item(), "Walker back item fault");
+		assertEquals(5, walker.reset().stream(true).count(), "Walker stream fault");
+	}
+
+	@Test void testStartedSource() {
+		Integer[] values = values(10);
+		assertArrayEquals(new Object[] {3, 4, 5, 6, 7, 8, 9},
+				advanced(values, 3).map(item -> item).stream().toArray(), "Map rest fault");
+		assertArrayEquals(new Object[] {5, 6, 7, 8, 9},
+				advanced(values, 3).skip(2).stream().toArray(), "Skip rest fault");
+		assertArrayEquals(new Object[] {3, 4, 5, 6, 7, 8, 9},
+				advanced(values, 3).limit(20).stream().toArray(), "Limit rest fault");
+		assertEquals(4, advanced(values, 3).limit(4).size(-1), "Limit size fault");
+		assertEquals(7, advanced(values, 3).zip(advanced(values, 0), Integer::sum)
+				.stream().toArray().length, "Zip rest fault");
+
+		AEnumerator<Integer> peeked = advanced(values, 3);
+		assertTrue(peeked.iterator().hasNext(), "Preview fault");
+		assertEquals(7, peeked.map(item -> item).size(-1), "Preview rest fault");
+	}
+
+	/** Перечислитель по values, из которого уже взято count элементов. */
+	private static AEnumerator<Integer> advanced(Integer[] values, int count) {
+		AEnumerator<Integer> result = AEnumerator.makeMultiple(values);
+		while (count-- != 0) result.next();
+		return result; }
+
+	@Test void testPrefetch() throws InterruptedException {
+		Integer[] values = values(1000);
+		try (PrefetchEnumerator<Integer> prefetch = new PrefetchEnumerator<Integer>(
+				AEnumerator.makeMultiple(values), 16, 2, null)) {
+			assertEquals(1000, prefetch.size(-1), "Size fault");
+			assertEquals(Arrays.asList(values), prefetch.stream().collect(
+					Collectors.toList()), "Prefetch fault"); }
+
+		try (PrefetchEnumerator<Integer> started = new PrefetchEnumerator<Integer>(
+				advanced(values, 3), 16, 2, null)) {
+			assertEquals(997, started.size(-1), "Started size fault");
+			assertEquals(Arrays.asList(values).subList(3, 1000), started.stream().collect(
+					Collectors.toList()), "Started prefetch fault"); }
+
+		PrefetchEnumerator<Integer> failed = new PrefetchEnumerator<Integer>(
+				new Endless(50), 16, 2, null);
+		int count = 0;
+		try { while (failed.next()) ++count; fail("Failure fault"); }
+		catch (IllegalStateException ex) { assertEquals("Broken", ex.getMessage(),
+				"Failure message fault"); }
+		assertEquals(48, count, "Failure position fault");
+
+		Endless endless = new Endless(-1);
+		PrefetchEnumerator<Integer> cancelled = new PrefetchEnumerator<Integer>(
+				endless, 16, 2, null);
+		for (int index = 0; index != 10; ++index)
+			assertTrue(cancelled.next(), "Next fault");
+		cancelled.close();
+		assertFalse(cancelled.next(), "Cancel fault");
+		assertTrue(endless.closed.await(1, TimeUnit.SECONDS), "Source close fault");
+	}
+
+	@Test void benchmark() {
+		if (NOBENCH) return;
+		Integer[] values = values(1 << 20);
+		List<Integer> list = Arrays.asList(values);
+		for (int round = 0; round != 5; ++round) {
+			benchmark("array", () -> AEnumerator.makeMultiple(values));
+			benchmark("list ", () -> new ListEnumerator(list)); }
+	}
+
+	private static void benchmark(String name, Supplier<AEnumerator<Integer>> source) {
+		final int rounds = 20;
+		long sum = 0, tick = System.nanoTime();
+		for (int round = 0; round != rounds; ++round)
+			for (Integer value : source.get()) sum += value;
+		long iterator = System.nanoTime() - tick;
+		tick = System.nanoTime();
+		for (int round = 0; round != rounds; ++round) {
+			AEnumerator<Integer> enumerator = source.get();
+			while (enumerator.next()) sum += enumerator.item(); }
+		long next = System.nanoTime() - tick;
+		tick = System.nanoTime();
+		Integer[] buffer = new Integer[256];
+		for (int round = 0; round != rounds; ++round) {
+			AEnumerator<Integer> enumerator = source.get();
+			for (int count; (count = enumerator.nextBatch(buffer)) != 0; )
+				for (int index = 0; index != count; ++index) sum += buffer[index]; }
+		long batch = System.nanoTime() - tick;
+		System.out.println("Enumerator " + name + ": for(:) " + Ticker.toStringEx(
+				iterator / rounds) + ", next() " + Ticker.toStringEx(next / rounds)
+				+ ", nextBatch() " + Ticker.toStringEx(batch / rounds) + " per pass");
+		assertTrue(sum > 0, "Sum fault");
+	}
+
+	private static Integer[] values(int count) {
+		Integer[] result = new Integer[count];
+		for (int index = 0; index != count; ++index) result[index] = index;
+		return result; }
+
+	private static long sum(int count) { return (long)count * (count-1) / 2; }
+
+	/** Бесконечный источник, падающий на элементе с индексом fault. */
+	private static final class Endless extends AEnumerator<Integer>
+			implements AutoCloseable {
+		private final int fault;
+		private final Latch closed = new Latch(1);
+		Endless(int fault) { this.fault = fault; }
+
+		@Override protected boolean next(int index) {
+			if (index == fault) throw new IllegalStateException("Broken");
+			return true; }
+		@Override public Integer item() { return index(); }
+		@Override public void close() { closed.countDown(); }
+	}
+
+	private static final class ListEnumerator extends AEnumerator<Integer> {
+		private final List<Integer> items;
+		ListEnumerator(List<Integer> items) { this.items = items; }
+
+		@Override protected boolean next(int index) { return index < items.size(); }
+		@Override public Integer item() { return items.get(index()); }
+		@Override public int size(int fake) { return items.size(); }
+	}
+
+	private static final class ArrayWalker extends AEnumerator.Walker<Integer> {
+		private final Integer[] items;
+		private boolean sized = true;
+		private volatile int forks;
+		ArrayWalker(Integer[] items) { this.items = items; }
+
+		@Override protected boolean shift(int index, int count) {
+			return index >= 0 && index < items.length; }
+		@Override public Integer item() { return items[index()]; }
+		@Override public int size(int fake) { return sized ? items.length : fake; }
+		@Override protected Walker<Integer> fork() {
+			++forks; return new ArrayWalker(items); }
+	}
+}
+
+
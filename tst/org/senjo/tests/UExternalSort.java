@@ -0,0 +1,148 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.AEnumerator;
+import org.senjo.basis.ExternalSort;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, change 2026-10-19 */
+class UExternalSort {
+
+	@Test void testSort() throws IOException {
+		Random random = new Random(5);
+		long[][] values = new long[10000][];
+		// Пара: ключ сортировки и порядковый номер для проверки устойчивости
+		for (int index = 0; index != values.length; ++index)
+			values[index] = new long[] { random.nextInt(500), index };
+		Comparator<long[]> byKey = Comparator.comparingLong(item -> item[0]);
+		List<long[]> expected = new ArrayList<long[]>(Arrays.asList(values));
+		expected.sort(byKey);
+
+		Path directory = Files.createTempDirectory("sort");
+		try {
+			ExternalSort<long[]> sort = new ExternalSort<long[]>(byKey, new Codec(), 777,
+					directory);
+			try (ExternalSort.Merge<long[]> merge = sort.sort(
+					AEnumerator.makeMultiple(values))) {
+				assertEquals(13, count(directory), "Spill fault");
+				assertEquals(values.length, merge.size(-1), "Size fault");
+				assertEquals(keys(expected.stream()), keys(merge.stream()), "Sort fault"); }
+			assertEquals(0, count(directory), "Cleanup fault");
+
+			try (ExternalSort.Merge<long[]> merge = sort.sort(
+					AEnumerator.makeMultiple(Arrays.copyOf(values, 100)))) {
+				assertEquals(0, count(directory), "Memory fault");
+				assertEquals(100, merge.stream().count(), "Memory count fault"); }
+		} finally { Files.delete(directory); }
+	}
+
+	/** Пачек больше FanIn: они сливаются группами в промежуточные файлы. */
+	@Test void testFanIn() throws IOException {
+		Random random = new Random(7);
+		long[][] values = new long[1000][];
+		for (int index = 0; index != values.length; ++index)
+			values[index] = new long[] { random.nextInt(50), index };
+		Comparator<long[]> byKey = Comparator.comparingLong(item -> item[0]);
+		List<long[]> expected = new ArrayList<long[]>(Arrays.asList(values));
+		expected.sort(byKey);
+
+		Path directory = Files.createTempDirectory("sort");
+		try {
+			ExternalSort<long[]> sort = new ExternalSort<long[]>(byKey, new Codec(), 4,
+					directory);
+			try (ExternalSort.Merge<long[]> merge = sort.sort(
+					AEnumerator.makeMultiple(values))) {
+				// 250 пачек по 4 элемента сливаются в 4 промежуточных файла
+				assertEquals(4, count(directory), "Reduce fault");
+				assertEquals(values.length, merge.size(-1), "Reduce size fault");
+				assertEquals(keys(expected.stream()), keys(merge.stream()),
+						"Reduce sort fault"); }
+			assertEquals(0, count(directory), "Reduce cleanup fault");
+		} finally { Files.delete(directory); }
+	}
+
+	/** Ошибка чтения пачки не оставляет временных файлов. */
+	@Test void testReadFailure() throws IOException {
+		long[][] values = new long[200][];
+		for (int index = 0; index != values.length; ++index)
+			values[index] = new long[] { values.length - index, index };
+		Comparator<long[]> byKey = Comparator.comparingLong(item -> item[0]);
+		Path directory = Files.createTempDirectory("sort");
+		try {
+			ExternalSort<long[]> sort = new ExternalSort<long[]>(byKey, new Broken(), 20,
+					directory);
+			try (ExternalSort.Merge<long[]> merge = sort.sort(
+					AEnumerator.makeMultiple(values))) {
+				assertEquals(10, count(directory), "Spill fault");
+				assertThrows(UncheckedIOException.class, merge::next, "Read fault"); }
+			assertEquals(0, count(directory), "Read cleanup fault");
+
+			ExternalSort<long[]> wide = new ExternalSort<long[]>(byKey, new Broken(), 2,
+					directory);
+			assertThrows(IOException.class, () -> wide.sort(
+					AEnumerator.makeMultiple(values)), "Reduce read fault");
+			assertEquals(0, count(directory), "Reduce read cleanup fault");
+		} finally { Files.delete(directory); }
+	}
+
+	@Test void testMerge() {
+		ExternalSort.Merge<Integer> merge = ExternalSort.merge(Comparator.naturalOrder(),
+				AEnumerator.makeMultiple(1, 4, 7), AEnumerator.makeEmpty(),
+				AEnumerator.makeMultiple(2, 4, 9), AEnumerator.makeMultiple(0));
+		assertEquals(Arrays.asList(0, 1, 2, 4, 4, 7, 9), merge.stream().collect(
+				Collectors.toList()), "Merge fault");
+		assertFalse(merge.next(), "Finish fault");
+
+		AEnumerator<Integer> started = AEnumerator.makeMultiple(1, 3, 5, 7, 9);
+		started.next(); started.next();
+		ExternalSort.Merge<Integer> rest = ExternalSort.merge(Comparator.naturalOrder(),
+				started, AEnumerator.makeMultiple(2, 4, 6));
+		assertEquals(6, rest.size(-1), "Started size fault");
+		assertArrayEquals(new Object[] {2, 4, 5, 6, 7, 9}, rest.stream().toArray(),
+				"Started merge fault");
+	}
+
+	private static List<String> keys(Stream<long[]> items) {
+		return items.map(item -> item[0] + ":" + item[1]).collect(Collectors.toList()); }
+
+	private static long count(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) { return files.count(); } }
+
+	private static class Broken extends Codec {
+		@Override public long[] read(DataInput in) throws IOException {
+			throw new IOException("Broken"); }
+	}
+
+	private static class Codec implements ExternalSort.Codec<long[]> {
+		@Override public void write(long[] item, DataOutput out) throws IOException {
+			out.writeLong(item[0]); out.writeInt((int)item[1]); }
+		@Override public long[] read(DataInput in) throws IOException {
+			return new long[] { in.readLong(), in.readInt() }; }
+	}
+}
+
+
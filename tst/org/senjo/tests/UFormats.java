@@ -0,0 +1,92 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.Formats;
+import org.senjo.basis.Text;
+import org.senjo.basis.Ticker;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UFormats {
+	private static final boolean NOBENCH = true;
+
+	@Test void testTick() {
+		assertEquals("(1.23ms)", Ticker.toStringEx(1234567), "Tick fault");
+		assertEquals("(0.00ms)", Ticker.toStringEx(0), "Zero fault");
+		assertEquals("(1,234.57ms)", Ticker.toStringEx(1234567890), "Group fault");
+		assertEquals("-(0.50ms)", Ticker.toStringEx(-500000), "Negative fault");
+		assertEquals("[(0.12ms)", Ticker.toStringEx(new StringBuilder("["), 125000)
+				.toString(), "Append fault");
+
+		DecimalFormat format = new DecimalFormat("(#,##0.00ms)",
+				DecimalFormatSymbols.getInstance(Locale.ROOT));
+		Random random = new Random(17);
+		StringBuilder out = new StringBuilder();
+		for (int index = 0; index != 100000; ++index) {
+			long nano = random.nextLong() >> random.nextInt(64);
+			out.setLength(0);
+			assertEquals(format.format(nano / 1000000f), Formats.tick(out, nano).toString(),
+					"DecimalFormat fault"); } }
+
+	@Test void testNumbers() {
+		StringBuilder out = new StringBuilder();
+		assertEquals("0", Formats.group(out, 0, ',').toString(), "Group zero fault");
+		out.setLength(0);
+		assertEquals("-9 223 372 036 854 775 808",
+				Formats.group(out, Long.MIN_VALUE, ' ').toString(), "Group min fault");
+
+		String[][] cases = { {"0", "   0 "}, {"999", " 999 "}, {"1234", "1.23k"},
+				{"45678901", "45.6M"}, {"-1", " ??? "} };
+		for (String[] pair : cases) {
+			out.setLength(0);
+			assertEquals(pair[1], Formats.shortNumber(out, Long.parseLong(pair[0]))
+					.toString(), "Short number fault");
+			assertEquals(pair[1], Text.shortNumber(Long.parseLong(pair[0])),
+					"Text short number fault"); } }
+
+	@Test void testAlign() {
+		assertEquals("  ab  ", Text.align("ab", 6, true, 0.5f, ' '), "Center fault");
+		assertEquals("ab....", Text.align("ab", 6, true, 0f, '.'), "Left fault");
+		assertEquals("cd", Text.align("abcd", 2, true, 1f, ' '), "Crop fault");
+		assertEquals("abcd", Text.align("abcd", 2, false, 1f, ' '), "No crop fault");
+		assertEquals("---", Text.align(3, '-'), "Fill fault");
+		StringBuilder out = new StringBuilder("|");
+		Formats.align(out, new StringBuilder("ab"), 4, true, 1f, '_');
+		assertEquals("|__ab", out.toString(), "Sequence fault"); }
+
+	@Test void benchmark() {
+		if (NOBENCH) return;
+		DecimalFormat format = new DecimalFormat("(#,##0.00ms)",
+				DecimalFormatSymbols.getInstance(Locale.ROOT));
+		StringBuilder out = new StringBuilder();
+		long sum = 0;
+		for (int round = 0; round != 5; ++round) {
+			Ticker ticker = new Ticker();
+			for (int index = 0; index != 1000000; ++index)
+				sum += format.format(index * 997L / 1000000f).length();
+			System.out.println("DecimalFormat " + ticker);
+			ticker = new Ticker();
+			for (int index = 0; index != 1000000; ++index) {
+				out.setLength(0);
+				sum += Formats.tick(out, index * 997L).length(); }
+			System.out.println("Formats " + ticker); }
+		System.out.println(sum); }
+}
+
+
+
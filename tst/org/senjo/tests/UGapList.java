@@ -0,0 +1,98 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.GapList;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UGapList {
+
+	@Test void testList() {
+		Random random = new Random(17);
+		List<Integer> expected = new ArrayList<Integer>();
+		GapList<Integer> list = new GapList<Integer>(0);
+		for (int step = 0; step != 20000; ++step) {
+			int size = expected.size(), action = random.nextInt(10);
+			if (action < 5 || size == 0) {
+				int index = random.nextInt(size + 1);
+				expected.add(index, step); list.add(index, step);
+			} else if (action < 8) {
+				int index = random.nextInt(size);
+				assertEquals(expected.remove(index), list.remove(index), "Remove fault");
+			} else {
+				int index = random.nextInt(size);
+				assertEquals(expected.set(index, -step), list.set(index, -step),
+						"Set fault"); }
+		}
+		assertEquals(expected, list, "Content fault");
+		list.clear();
+		assertTrue(list.isEmpty(), "Clear fault");
+	}
+
+	@Test void testEditor() {
+		GapList<Integer> list = new GapList<Integer>(Arrays.asList(0, 1, 2, 3, 4, 5, 6));
+		GapList<Integer>.Cursor editor = list.editor();
+		assertTrue(editor.seek(3), "Seek fault");
+		editor.prepend(30);
+		editor.append(31);
+		assertEquals(3, (int)editor.item(), "Position fault");
+		assertEquals(4, editor.index(), "Index fault");
+		editor.replace(33);
+		assertTrue(editor.next(), "Next fault");
+		editor.remove();
+		assertThrows(NoSuchElementException.class, editor::item, "Removed fault");
+		assertTrue(editor.next(), "Next after remove fault");
+		assertEquals(4, (int)editor.item(), "Next item fault");
+		assertTrue(editor.prev(), "Prev fault");
+		assertEquals(33, (int)editor.item(), "Prev item fault");
+		assertEquals(Arrays.asList(0, 1, 2, 30, 33, 4, 5, 6), list, "Content fault");
+
+		// Шаг назад сразу после удаления встаёт на предыдущий элемент
+		GapList<Integer> six = new GapList<Integer>(Arrays.asList(0, 1, 2, 3, 4, 5));
+		GapList<Integer>.Cursor cursor = six.editor();
+		assertTrue(cursor.seek(3), "Seek before remove fault");
+		cursor.remove();
+		assertTrue(cursor.prev(), "Prev after remove fault");
+		assertEquals(2, (int)cursor.item(), "Prev after remove item fault");
+		cursor.remove();
+		assertTrue(cursor.next(), "Next after remove fault");
+		assertEquals(4, (int)cursor.item(), "Next after remove item fault");
+		assertTrue(cursor.prev(), "Prev after next fault");
+		assertEquals(1, (int)cursor.item(), "Prev after next item fault");
+		cursor.remove();
+		assertTrue(cursor.seek(0), "Seek after remove fault");
+		assertEquals(0, (int)cursor.item(), "Seek after remove item fault");
+		cursor.remove();
+		assertFalse(cursor.prev(), "Prev before first fault");
+		assertEquals(Arrays.asList(4, 5), six, "Remove content fault");
+
+		// Пачка через разрыв
+		editor.reset();
+		Integer[] batch = new Integer[10];
+		assertEquals(8, editor.nextBatch(batch), "Batch fault");
+		assertEquals(list, Arrays.asList(batch).subList(0, 8), "Batch content fault");
+
+		editor.reset();
+		assertTrue(editor.next(), "Next fault");
+		list.add(0, -1);
+		assertThrows(IllegalStateException.class, editor::next, "Version fault");
+	}
+}
+
+
@@ -0,0 +1,223 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.Gateway;
+import org.senjo.basis.Helper;
+import org.senjo.basis.Ticker;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UGateway {
+	private static final boolean NOBENCH = true;
+
+	@Test void testJoin() throws InterruptedException {
+		Gateway gateway = new Gateway(false);
+		assertFalse(gateway.join(20), "Join closed with timeout fault");
+		Thread thread = start(gateway::join);
+		Thread.sleep(50);
+		assertTrue(thread.isAlive(), "Join closed fault");
+		assertEquals(1, gateway.open(), "Open count fault");
+		thread.join(1000);
+		assertFalse(thread.isAlive(), "Join opened fault");
+		assertTrue(gateway.join(0), "Join opened without timeout fault");
+	}
+
+	/** Ушедшие по таймауту потоки не должны съедать пропуски. */
+	@Test void testPassAfterTimeout() throws InterruptedException {
+		Gateway gateway = new Gateway(false);
+		Thread[] leavers = new Thread[8];
+		for (int index = 0; index != leavers.length; ++index)
+			leavers[index] = start(() -> gateway.join(10));
+		for (Thread leaver : leavers) leaver.join(1000);
+
+		AtomicInteger passed = new AtomicInteger();
+		Thread thread = start(() -> { gateway.join(); passed.incrementAndGet(); });
+		Thread.sleep(50);
+		assertEquals(1, gateway.pass(1), "Pass count fault");
+		thread.join(1000);
+		assertEquals(1, passed.get(), "Pass through closed gateway fault");
+		assertEquals(0, gateway.pass(1), "Pass nobody fault");
+	}
+
+	@Test void testInterrupt() throws InterruptedException {
+		Gateway gateway = new Gateway(false);
+		AtomicInteger result = new AtomicInteger();
+		Thread thread = start(() -> {
+			try { gateway.joinInterruptibly(); result.set(1); }
+			catch (InterruptedException ex) { result.set(2); } });
+		Thread.sleep(50);
+		thread.interrupt();
+		thread.join(1000);
+		assertEquals(2, result.get(), "Interruptible join fault");
+		assertEquals(0, gateway.open(), "Interrupted thread is still waiting fault");
+	}
+
+	@Test void testAsync() throws Exception {
+		Gateway gateway = new Gateway(false);
+		CompletableFuture<Void> first = gateway.joinAsync().toCompletableFuture();
+		CompletableFuture<Void> cancelled = gateway.joinAsync().toCompletableFuture();
+		CompletableFuture<Void> last = gateway.joinAsync().toCompletableFuture();
+		AtomicInteger called = new AtomicInteger();
+		gateway.onOpen(called::incrementAndGet);
+		assertFalse(first.isDone(), "Async join closed fault");
+		assertEquals(1, gateway.pass(1), "Pass async count fault");
+		assertTrue(first.isDone(), "Pass async fault");
+		cancelled.cancel(false);
+		assertEquals(1, gateway.pass(1), "Pass skips cancelled fault");
+		assertTrue(last.isDone(), "Pass async after cancelled fault");
+		assertEquals(1, gateway.open(), "Open callback count fault");
+		assertEquals(1, called.get(), "Callback on open fault");
+
+		assertSame(gateway.joinAsync(), gateway.joinAsync(), "Opened async join fault");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CompletableFuture<Thread> thread = new CompletableFuture<>();
+			gateway.onOpen(() -> thread.complete(Thread.currentThread()), executor);
+			assertNotSame(Thread.currentThread(), thread.get(1, TimeUnit.SECONDS),
+					"Callback executor fault");
+		} finally { executor.shutdown(); }
+	}
+
+	/** Задача и future, пропущенные методом pass, могут сами обратиться к затвору:
+	 * монитор пропуска к этому моменту уже должен быть снят. */
+	@Test void testReenter() throws Exception {
+		Gateway gateway = new Gateway(false);
+		CompletableFuture<Void> closed = gateway.joinAsync().toCompletableFuture()
+				.thenRun(gateway::close);
+		Thread thread = start(() -> gateway.pass(1));
+		thread.join(1000);
+		assertFalse(thread.isAlive(), "Pass future reenter hangs fault");
+		assertTrue(closed.isDone(), "Pass future reenter fault");
+
+		AtomicInteger called = new AtomicInteger();
+		gateway.onOpen(() -> { called.incrementAndGet(); gateway.pass(); }, null);
+		gateway.onOpen(called::incrementAndGet, null);
+		thread = start(gateway::pass);
+		thread.join(1000);
+		assertFalse(thread.isAlive(), "Pass callback reenter hangs fault");
+		assertEquals(2, called.get(), "Pass callback reenter fault");
+	}
+
+	/** Нагрузочный замер: 2000 потоков раунд за раундом собираются у закрытого затвора,
+	 * который затем открывается и снова закрывается. Сравнивается пробуждение всех
+	 * потоков разом и каскадное пробуждение. */
+	@Test void benchmark() throws InterruptedException {
+		if (NOBENCH) return;
+		benchmark("at once", new Gateway(false));
+		benchmark("cascade", new Gateway(false, Gateway.AutoBatch));
+	}
+
+	private static void benchmark(String mode, final Gateway gateway)
+			throws InterruptedException {
+		final int count = 2000, rounds = 20;
+		final AtomicInteger arrived = new AtomicInteger(), passed = new AtomicInteger();
+		final int[] round = new int[1];
+		Thread[] threads = new Thread[count];
+		for (int index = 0; index != count; ++index) threads[index] = start(() -> {
+			for (int step = 0; step != rounds; ++step) {
+				arrived.incrementAndGet();
+				gateway.join();
+				passed.incrementAndGet();
+				awaitRound(round, step); } });
+
+		long tick = System.nanoTime(), park = 0, call = 0;
+		for (int step = 0; step != rounds; ++step) {
+			while (arrived.get() != count*(step+1)) Thread.yield();
+			long open = System.nanoTime();
+			gateway.open();
+			call += System.nanoTime() - open;
+			while (passed.get() != count*(step+1)) Thread.yield();
+			park += System.nanoTime() - open;
+			gateway.close();
+			synchronized (round) { round[0] = step+1; round.notifyAll(); } }
+		for (Thread thread : threads) thread.join();
+		System.out.println("Gateway " + mode + ' ' + count + " threads x " + rounds
+				+ " rounds: total " + Ticker.toStringEx(System.nanoTime() - tick)
+				+ ", open() call " + Ticker.toStringEx(call / rounds)
+				+ ", open to all passed " + Ticker.toStringEx(park / rounds)
+				+ " per round");
+	}
+
+	/** Каскад должен пропустить всех, даже если в цепочке есть ушедшие потоки и задачи. */
+	@Test void testCascade() throws InterruptedException {
+		Gateway gateway = new Gateway(false, 3);
+		AtomicInteger passed = new AtomicInteger();
+		Thread[] threads = new Thread[40];
+		for (int index = 0; index != threads.length; ++index) {
+			if (index % 7 == 3) gateway.onOpen(passed::incrementAndGet);
+			if (index % 5 == 1) start(() -> gateway.join(1)).join();
+			threads[index] = start(() -> { gateway.join(); passed.incrementAndGet(); }); }
+		Thread.sleep(50);
+		gateway.open();
+		for (Thread thread : threads) thread.join(1000);
+		for (Thread thread : threads) assertFalse(thread.isAlive(), "Cascade lost fault");
+		assertEquals(46, passed.get(), "Cascade passed count fault");
+	}
+
+	/** Нагрузочный замер для виртуальных потоков (Java 21+): 100 000 виртуальных потоков
+	 * собираются у закрытого затвора, не занимая потоков-носителей, и проходят разом после
+	 * его открытия. На Java до 21 замер пропускается. */
+	/** Helper должен загружаться на любой Java машине и узнавать виртуальные потоки. */
+	@Test void testVirtualProbe() throws Exception {
+		assertFalse(Helper.isVirtual(Thread.currentThread()), "Platform thread fault");
+		Method starter;
+		try { starter = Thread.class.getMethod("startVirtualThread", Runnable.class); }
+		catch (NoSuchMethodException ex) { return; }
+		final boolean[] virtual = new boolean[1];
+		Gateway gateway = new Gateway(false);
+		Thread thread = (Thread)starter.invoke(null, (Runnable)() -> {
+			virtual[0] = Helper.isVirtual(Thread.currentThread()); gateway.join(); });
+		Thread.sleep(50);
+		gateway.open();
+		thread.join(1000);
+		assertFalse(thread.isAlive(), "Virtual join fault");
+		assertTrue(virtual[0], "Virtual thread fault");
+	}
+
+	@Test void benchmarkVirtual() throws Exception {
+		if (NOBENCH) return;
+		Method starter;
+		try { starter = Thread.class.getMethod("startVirtualThread", Runnable.class); }
+		catch (NoSuchMethodException ex) { return; }
+		final int count = 100000;
+		final Gateway gateway = new Gateway(false);
+		final AtomicInteger arrived = new AtomicInteger();
+		Runnable task = () -> { arrived.incrementAndGet(); gateway.join(); };
+		Thread[] threads = new Thread[count];
+
+		long tick = System.nanoTime();
+		for (int index = 0; index != count; ++index)
+			threads[index] = (Thread)starter.invoke(null, task);
+		while (arrived.get() != count) Thread.sleep(1);
+		long open = System.nanoTime();
+		gateway.open();
+		for (Thread thread : threads) thread.join();
+		long finish = System.nanoTime();
+		System.out.println("Gateway " + count + " virtual threads: arrive "
+				+ Ticker.toStringEx(open - tick) + ", open to all passed "
+				+ Ticker.toStringEx(finish - open));
+	}
+
+	private static void awaitRound(int[] round, int step) {
+		synchronized (round) { while (round[0] == step) try { round.wait(); }
+			catch (InterruptedException ex) { return; } } }
+
+	private static Thread start(Runnable task) {
+		Thread result = new Thread(task); result.start(); return result; }
+}
+
+
@@ -0,0 +1,48 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.Latch;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class ULatch {
+
+	@Test void testCountDown() throws InterruptedException {
+		Latch latch = new Latch(3);
+		Thread[] threads = new Thread[4];
+		for (int index = 0; index != threads.length; ++index) {
+			threads[index] = new Thread(latch::awaitUninterruptibly);
+			threads[index].start(); }
+		assertFalse(latch.await(20, TimeUnit.MILLISECONDS), "Await closed fault");
+		latch.countDown(); latch.countDown();
+		assertEquals(1, latch.getCount(), "Count fault");
+		Thread.sleep(20);
+		for (Thread thread : threads) assertTrue(thread.isAlive(), "Early open fault");
+		latch.countDown(); latch.countDown();
+		assertEquals(0, latch.getCount(), "Count below zero fault");
+		for (Thread thread : threads) thread.join(1000);
+		for (Thread thread : threads) assertFalse(thread.isAlive(), "Open fault");
+		assertTrue(latch.await(0, TimeUnit.MILLISECONDS), "Await opened fault");
+	}
+
+	@Test void testInterrupt() throws InterruptedException {
+		Latch latch = new Latch(1);
+		Thread.currentThread().interrupt();
+		assertThrows(InterruptedException.class, latch::await, "Interrupted await fault");
+		assertFalse(Thread.interrupted(), "Interrupt flag fault");
+	}
+}
+
+
@@ -0,0 +1,91 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.MappedRecordWalker;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class UMappedRecordWalker {
+
+	@Test void testFixed() throws IOException {
+		// 1000 записей по 12 байт и неполная запись в конце; кусок 64 не кратен записи
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index != 1000; ++index)
+			builder.append(String.format("rec%08d\n", index));
+		Path file = write(builder.append("tail").toString());
+		try (MappedRecordWalker walker = MappedRecordWalker.fixed(file, 12, 64)) {
+			assertEquals(1000, walker.size(-1), "Size fault");
+			assertTrue(walker.seek(777), "Seek fault");
+			assertEquals("rec00000777\n", walker.text().toString(), "Text fault");
+			assertEquals(777L * 12, walker.position(), "Position fault");
+			assertEquals(12, walker.item().remaining(), "Item fault");
+			assertTrue(walker.seek(5), "Seek back fault");
+			assertEquals("rec00000005\n", walker.text().toString(), "Text back fault");
+			assertFalse(walker.seek(1000), "Seek over fault");
+
+			walker.reset();
+			long sum = walker.stream(true)
+					.mapToLong(item -> item.getLong(item.position() + 3))
+					.sum();
+			walker.reset();
+			long expected = 0;
+			while (walker.next()) {
+				ByteBuffer item = walker.item();
+				expected += item.getLong(item.position() + 3); }
+			assertEquals(expected, sum, "Parallel fault");
+		} finally { Files.delete(file); }
+	}
+
+	@Test void testLines() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index != 3000; ++index)
+			builder.append("line ").append(index).append(index % 2 == 0 ? "\r\n" : "\n");
+		Path file = write(builder.toString());
+		try (MappedRecordWalker walker = MappedRecordWalker.lines(file, 32)) {
+			assertEquals(-1, walker.size(-1), "Unknown size fault");
+			assertTrue(walker.next(), "Next fault");
+			assertEquals("line 0", walker.text().toString(), "First fault");
+			assertTrue(walker.next(), "Next fault");
+			assertEquals("line 1", walker.text().toString(), "Second fault");
+			assertTrue(walker.seek(2000), "Seek fault");
+			assertEquals("line 2000", walker.text().toString(), "Seek text fault");
+			assertTrue(walker.seek(1500), "Seek back fault");
+			assertEquals("line 1500", walker.text().toString(), "Seek back text fault");
+			assertTrue(walker.next(), "Next after seek fault");
+			assertEquals("line 1501", walker.text().toString(), "Next text fault");
+			assertFalse(walker.seek(3000), "Seek over fault");
+			assertEquals(3000, walker.size(-1), "Size fault");
+			assertTrue(walker.seek(2999), "Seek last fault");
+			assertEquals("line 2999", walker.text().toString(), "Last text fault");
+		} finally { Files.delete(file); }
+
+		file = write("short\n" + new String(new char[100]).replace('\0', 'x'));
+		try (MappedRecordWalker walker = MappedRecordWalker.lines(file, 32)) {
+			assertTrue(walker.next(), "Short fault");
+			assertThrows(IllegalStateException.class, walker::next, "Long line fault");
+		} finally { Files.delete(file); }
+	}
+
+	private static Path write(String text) throws IOException {
+		Path result = Files.createTempFile("senjo", ".dat");
+		Files.write(result, text.getBytes(StandardCharsets.UTF_8));
+		return result; }
+}
+
+
@@ -11,12 +11,17 @@ import static org.junit.jupiter.api.Assertions.*;
 import static java.lang.System.out;
 
 import org.junit.jupiter.api.Test;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.Random;
 import org.senjo.data.Phrase;
+import org.senjo.data.PhraseFormat;
+import org.senjo.data.PhraseTemplate;
 
 /**
  * 
  * @author Denis Rezvyakov aka Dinya Feony Senjo
- * @version create 2019-10-27 */
+ * @version create 2019-10-27, change 2026-10-19 */
 class UPhrase {
 	private static final boolean NOVISUAL = true;
 
@@ -41,6 +46,72 @@ class UPhrase {
 		assertPhrase("Приплыло 64 корабля."  ,  64);
 	}
 
+	@Test final void testTemplate() {
+		String format = "Созрел[|и] [@] подсолнух[|а|ов]";
+		assertEquals("Созрел 21 подсолнух", new Phrase().form(21, format).end(),
+				"Single fault");
+		assertEquals("Созрели 4 подсолнуха", new Phrase().form(4, format).end(),
+				"Dual fault");
+		assertEquals("Созрели 300 подсолнухов", new Phrase().form(300, format).end(),
+				"Plural fault");
+		assertEquals("Созрели 12 подсолнухов", new Phrase().form(12, format).end(),
+				"Teen fault");
+		assertSame(PhraseTemplate.of(format), PhraseTemplate.of(format), "Cache fault");
+		assertEquals("Корабль", PhraseTemplate.of("Корабл[ь]").toString(1),
+				"Single cell fault");
+		assertEquals("кораблей 5", PhraseTemplate.of("корабл[ь|я|ей] [@]").toString(5),
+				"Short cells fault");
+		assertEquals("корабли", PhraseTemplate.of("корабл[ь|и]").toString(7),
+				"Last cell fault");
+
+		PhraseTemplate english = PhraseTemplate.compile("[@] ship[|s] arrived",
+				PhraseTemplate.English);
+		assertEquals("1 ship arrived", new Phrase().form(1, english).end(),
+				"English fault");
+		assertEquals("0 ships arrived", english.toString(0), "English plural fault");
+		assertEquals("21 ships arrived", english.toString(21), "English 21 fault"); }
+
+	@Test final void testFormat() {
+		assertEquals("5 items in queue took 1.235ms", new Phrase()
+				.format("%d items in %s took %.3fms", 5, "queue", 1.23456).end(),
+				"Varargs fault");
+		assertEquals("[  -0042]", new Phrase().format("[%7s]", "-0042").end(),
+				"String fault");
+		assertEquals("ffffffff", new Phrase().format("%x", -1).end(), "Int hex fault");
+		assertEquals("0XFF", new Phrase().format("%#X", 255L).end(), "Long hex fault");
+		assertEquals("1.1", new Phrase().format("%s", 1.1f).end(), "Float fault");
+		assertEquals("c", new Phrase().format("%s", 'c').end(), "Char fault");
+		assertEquals("-0.0", new Phrase().format("%.1f", -0.04).end(), "Sign fault");
+		assertEquals("50%", new Phrase().format("%d%%", 50).end(), "Percent fault");
+		assertEquals("ff", new Phrase().format("%02x", (byte)-1).end(), "Byte hex fault");
+		Integer none = null;
+		assertEquals("null", new Phrase().format("%s", none).end(), "Null boxed fault");
+
+		PhraseFormat format = PhraseFormat.compile("%08.2f|%-6d|%+,d", Locale.US);
+		assertTrue(format.isCompiled(), "Compile fault");
+		assertEquals("-0003.14|42    |+1,234,567", format.append(new StringBuilder(),
+				-3.14159, 42, 1234567).toString(), "Flags fault");
+		assertEquals("1 234,50", PhraseFormat.compile("%,.2f", new Locale("ru", "RU"))
+				.append(new StringBuilder(), 1234.5).toString().replace('\u00a0', ' '),
+				"Locale fault");
+		assertFalse(PhraseFormat.compile("%1$s %1$s", Locale.US).isCompiled(),
+				"Fallback fault");
+		assertEquals("a a", PhraseFormat.compile("%1$s %1$s", Locale.US)
+				.append(new StringBuilder(), "a").toString(), "Fallback output fault");
+
+		StringBuilder out = new StringBuilder("keep");
+		assertThrows(MissingFormatArgumentException.class,
+				() -> PhraseFormat.of("%d and %d").append(out, 1), "Missing fault");
+		assertEquals("keep", out.toString(), "Rollback fault");
+
+		Random random = new Random(5);
+		for (int index = 0; index != 10000; ++index) {
+			double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20)-6);
+			String pattern = "%,." + random.nextInt(12) + "f";
+			assertEquals(String.format(Locale.US, pattern, value), PhraseFormat.compile(
+					pattern, Locale.US).append(new StringBuilder(), value).toString(),
+					"Round fault"); } }
+
 /* Возможный формат:
 	has_ship: Приплыл{form:count,| |о |)}{count} корабл{form:count,|ь|я|ей|}.
 	has_ship: 'Приплыл' form(count, | |о |) count 'корабл' form(count, |ь|я|ей|) '.'
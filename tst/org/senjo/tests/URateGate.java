@@ -0,0 +1,65 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.RateGate;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class URateGate {
+
+	@Test void testBurst() throws InterruptedException {
+		RateGate gate = new RateGate(20, TimeUnit.MILLISECONDS, 3);
+		assertEquals(3, gate.available(), "Full bucket fault");
+		assertTrue (gate.tryAcquire(2), "Acquire burst fault");
+		assertTrue (gate.tryAcquire( ), "Acquire last fault");
+		assertFalse(gate.tryAcquire( ), "Acquire empty fault");
+		assertFalse(gate.tryAcquire(1, 5, TimeUnit.MILLISECONDS), "Hopeless timeout fault");
+		assertTrue (gate.tryAcquire(1, 40, TimeUnit.MILLISECONDS), "Timeout acquire fault");
+		Thread.sleep(70);
+		assertTrue (gate.available() >= 2, "Refill fault");
+		assertThrows(IllegalArgumentException.class, () -> gate.tryAcquire(4),
+				"Acquire over burst fault");
+	}
+
+	/** Ждущие потоки должны получать жетоны не чаще заданной скорости. */
+	@Test void testRate() throws InterruptedException {
+		RateGate gate = new RateGate(200, 1);
+		final int count = 20;
+		long tick = System.nanoTime();
+		for (int index = 0; index != count; ++index) gate.acquire();
+		long spent = (System.nanoTime() - tick) / 1000000;
+		assertTrue(spent >= (count-1) * 5 - 1, "Rate too fast fault: " + spent + "ms");
+		assertTrue(spent < count * 5 * 4, "Rate too slow fault: " + spent + "ms");
+	}
+
+	@Test void testInterrupt() throws InterruptedException {
+		RateGate gate = new RateGate(1, TimeUnit.SECONDS, 1);
+		assertTrue(gate.tryAcquire(), "Acquire fault");
+		Thread.currentThread().interrupt();
+		assertThrows(InterruptedException.class, gate::acquire,
+				"Interrupted acquire fault");
+		Thread thread = new Thread(() -> { try { gate.acquire(); }
+			catch (InterruptedException ex) { } });
+		thread.start();
+		Thread.sleep(20);
+		thread.interrupt();
+		thread.join(1000);
+		assertFalse(thread.isAlive(), "Interrupt sleeping acquire fault");
+		assertTrue(gate.tryAcquire(1, 1500, TimeUnit.MILLISECONDS),
+				"Reservation refund fault");
+	}
+}
+
+
@@ -0,0 +1,116 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.Semaphore;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19 */
+class USemaphore {
+
+	@Test void testPermits() throws InterruptedException {
+		Semaphore semaphore = new Semaphore(3);
+		assertTrue (semaphore.tryAcquire(2), "Acquire two fault");
+		assertEquals(1, semaphore.availablePermits(), "Available fault");
+		assertFalse(semaphore.tryAcquire(2), "Acquire over available fault");
+		assertFalse(semaphore.tryAcquire(2, 20, TimeUnit.MILLISECONDS), "Timeout fault");
+		semaphore.release(4);
+		assertEquals(5, semaphore.drainPermits(), "Drain fault");
+		assertFalse(semaphore.tryAcquire(), "Acquire drained fault");
+		assertThrows(IllegalStateException.class, () -> new Semaphore(-1),
+				"Negative permits fault");
+	}
+
+	@Test void testWait() throws InterruptedException {
+		Semaphore semaphore = new Semaphore(0);
+		AtomicInteger passed = new AtomicInteger();
+		Thread single = start(() -> {
+			semaphore.acquireUninterruptibly (); passed.addAndGet( 1); });
+		Thread triple = start(() -> {
+			semaphore.acquireUninterruptibly(3); passed.addAndGet(10); });
+		Thread.sleep(50);
+		assertEquals(0, passed.get(), "Acquire without permits fault");
+		semaphore.release();
+		single.join(1000);
+		assertEquals(1, passed.get(), "Single acquire fault");
+		semaphore.release(); semaphore.release();
+		Thread.sleep(50);
+		assertEquals(1, passed.get(), "Triple acquire with two permits fault");
+		semaphore.release();
+		triple.join(1000);
+		assertEquals(11, passed.get(), "Triple acquire fault");
+		assertEquals(0, semaphore.availablePermits(), "Permits left fault");
+	}
+
+	/** Число одновременно работающих потоков не должно превышать число разрешений. */
+	@Test void testLimit() throws InterruptedException {
+		final int permits = 3, count = 16, rounds = 2000;
+		Semaphore semaphore = new Semaphore(permits);
+		AtomicInteger inside = new AtomicInteger(), excess = new AtomicInteger();
+		Thread[] threads = new Thread[count];
+		for (int index = 0; index != count; ++index) threads[index] = start(() -> {
+			for (int round = 0; round != rounds; ++round) {
+				semaphore.acquireUninterruptibly();
+				if (inside.incrementAndGet() > permits) excess.incrementAndGet();
+				if ((round & 7) == 0) Thread.yield();
+				inside.decrementAndGet();
+				semaphore.release(); } });
+		for (Thread thread : threads) thread.join(30000);
+		for (Thread thread : threads) assertFalse(thread.isAlive(), "Acquire hangs fault");
+		assertEquals(0, excess.get(), "Limit fault");
+		assertEquals(permits, semaphore.availablePermits(), "Permits lost fault");
+	}
+
+	/** Поток, которому хватает остатка, не должен ждать потока с большой потребностью,
+	 * вставшего в очередь раньше. */
+	@Test void testNarrowBehindWide() throws InterruptedException {
+		Semaphore semaphore = new Semaphore(0);
+		AtomicInteger passed = new AtomicInteger();
+		Thread wide = start(() -> {
+			semaphore.acquireUninterruptibly(2); passed.addAndGet(10); });
+		Thread.sleep(50);
+		Thread narrow = start(() -> {
+			semaphore.acquireUninterruptibly (); passed.addAndGet( 1); });
+		Thread.sleep(50);
+		semaphore.release();
+		narrow.join(1000);
+		assertEquals(1, passed.get(), "Narrow behind wide fault");
+		semaphore.release(2);
+		wide.join(1000);
+		assertEquals(11, passed.get(), "Wide acquire fault");
+	}
+
+	/** Потоки с разной потребностью не должны терять пробуждения. */
+	@Test void testMixed() throws InterruptedException {
+		final int permits = 3, count = 12, rounds = 2000;
+		Semaphore semaphore = new Semaphore(permits);
+		Thread[] threads = new Thread[count];
+		for (int index = 0; index != count; ++index) {
+			final int need = 1 + index % permits;
+			threads[index] = start(() -> {
+				for (int round = 0; round != rounds; ++round) {
+					semaphore.acquireUninterruptibly(need);
+					if ((round & 7) == 0) Thread.yield();
+					semaphore.release(need); } }); }
+		for (Thread thread : threads) thread.join(30000);
+		for (Thread thread : threads) assertFalse(thread.isAlive(), "Acquire hangs fault");
+		assertEquals(permits, semaphore.availablePermits(), "Permits lost fault");
+	}
+
+	private static Thread start(Runnable task) {
+		Thread result = new Thread(task); result.start(); return result; }
+}
+
+
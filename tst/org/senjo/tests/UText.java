@@ -0,0 +1,213 @@
+/* Copyright 2026, Senjo Org. Denis Rezvyakov aka Dinya Feony Senjo.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.senjo.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.senjo.basis.Text;
+import org.senjo.basis.Ticker;
+
+/**
+ * 
+ * @author Denis Rezvyakov aka Dinya Feony Senjo
+ * @version create 2026-10-19, change 2026-10-19 */
+class UText {
+	private static final boolean NOBENCH = true;
+
+	@Test void testTextEx() {
+		assertEquals("{list: [1, 2, 3], leaves: [@Leaf, null], state: State#NEW, "
+				+ "empty: @Object; id: 42, leaf: {value: 7, name: \"leaf\"}}",
+				Text.textEx(new Child()), "Object fault");
+		assertEquals("{list: [1, 2, 3], leaves: [{value: 7, name: \"leaf\"}, null], "
+				+ "state: State#NEW, empty: @Object; id: 42, leaf: {value: 7, "
+				+ "name: \"leaf\"}}", Text.textEx(new Child(), Text.Context().bounds(3, 5)),
+				"Bounds fault");
+		assertEquals("{flag: true, bits: -3, small: 300, letter: 'z', number: -17, "
+				+ "big: 1099511627776, ratio: 0.1, exact: 1.0E-7, letters: ['a', 'b'], "
+				+ "flags: [true, false], bytes: [1, -1], shorts: [2], longs: [3, 4], "
+				+ "floats: [1.5], doubles: [2.25, NaN], matrix: [@int[], @int[]]}",
+				Text.textEx(new Primitives()), "Primitives fault");
+		assertEquals("[1, \"two\", null, {value: 7, name: \"leaf\"}]",
+				Text.textEx(new Object[] { 1, "two", null, new Leaf() }), "Array fault");
+		assertEquals(3 * 64 + 2 + 1, Text.textEx(new int[100]).length(), "Limit fault");
+		assertTrue(Text.textEx(new int[100]).endsWith("0, …]"), "Limit tail fault");
+		assertEquals("'named'", Text.textEx(new Named()), "toString fault");
+		assertEquals("{own: 6; hidden: 5}", Text.textEx(new Inherited()), "Inherit fault");
+		assertEquals("@Child", Text.text(new Child()), "Simple fault");
+	}
+
+	@Test void testReferences() {
+		Node first = new Node("first"), second = new Node("second");
+		first.next = second; second.next = first;
+		Leaf leaf = new Leaf();
+		Object[] shared = { leaf, leaf, first };
+		Text.Context context = Text.Context().bounds(8, 3).references(true);
+		assertEquals("[#1{value: 7, name: \"leaf\"}, @ref#1, #2{name: \"first\", "
+				+ "next: {name: \"second\", next: @ref#2}}]", Text.textEx(shared, context),
+				"References fault");
+		// Повторный вызов начинает учёт заново
+		assertEquals("#1{name: \"first\", next: {name: \"second\", next: @ref#1}}",
+				Text.textEx(first, context), "Reuse fault");
+
+		// Номера меток идут в порядке первых повторов, а не в порядке вывода
+		Leaf early = new Leaf(), late = new Leaf();
+		Object[] crossed = { early, late, late, early };
+		String expected = "[#2{value: 7, name: \"leaf\"}, #1{value: 7, name: \"leaf\"}, "
+				+ "@ref#1, @ref#2]";
+		assertEquals(expected, Text.textEx(crossed, context), "Labels order fault");
+		int budget = expected.length() - 3;
+		assertEquals(expected.substring(0, budget-1) + '…', Text.textEx(crossed,
+				context.clone().budget(budget)), "Labels budget fault");
+		Leaf[] leaves = new Leaf[30];
+		for (int index = 0; index != leaves.length; ++index) leaves[index] = new Leaf();
+		Object[] twice = { leaves, leaves.clone() };
+		String labelled = Text.textEx(twice, context);
+		for (int index = 1; index <= leaves.length; ++index) {
+			String label = "#" + index + '{';
+			assertEquals(labelled.lastIndexOf(label), labelled.indexOf(label),
+					"Label " + index + " fault"); }
+
+		Object[] wide = new Object[1000];
+		Arrays.fill(wide, first);
+		String text = Text.textEx(wide, Text.Context().bounds(8, 3).array(0).budget(200));
+		assertEquals(200, text.length(), "Budget fault");
+		assertTrue(text.endsWith("…"), "Budget tail fault");
+	}
+
+	/** Вывод, уложившийся в бюджет точно, не обрезается; на символ длиннее — обрезается. */
+	@Test void testBudgetFit() throws IOException {
+		assertEquals("\"abc\"", Text.textEx("abc", Text.Context().budget(5)),
+				"String fit fault");
+		assertEquals("\"abc…", Text.textEx("abcd", Text.Context().budget(5)),
+				"String over fault");
+		List<Integer> list = Arrays.asList(1, 2);
+		assertEquals("[1, 2]", Text.textEx(list, Text.Context().budget(6)),
+				"List fit fault");
+		assertEquals("[1, …", Text.textEx(list, Text.Context().budget(5)),
+				"List over fault");
+		Sink sink = new Sink();
+		Text.textEx(sink, list, Text.Context().budget(6));
+		assertEquals("[1, 2]", sink.text.toString(), "Stream fit fault");
+	}
+
+	@Test void testAppendable() throws IOException {
+		int[] values = new int[100000];
+		Text.Context context = Text.Context().array(0);
+		String expected = Text.textEx(values, context);
+		Sink sink = new Sink();
+		assertSame(sink, Text.textEx(sink, values, context), "Result fault");
+		assertEquals(expected, sink.text.toString(), "Stream fault");
+		assertTrue(sink.parts > 10, "Parts fault");
+
+		sink = new Sink();
+		Text.textEx(sink, values, context.clone().budget(1000));
+		assertEquals(expected.substring(0, 999) + '…', sink.text.toString(),
+				"Budget fault");
+
+		char[] huge = new char[1 << 20];
+		Arrays.fill(huge, 'x');
+		sink = new Sink();
+		Text.textEx(sink, new Object[] { new String(huge) }, Text.Context().budget(100));
+		assertEquals(100, sink.text.length(), "Huge fault");
+
+		assertThrows(IOException.class, () -> Text.textEx(new Appendable() {
+			@Override public Appendable append(CharSequence csq) throws IOException {
+				throw new IOException("Broken"); }
+			@Override public Appendable append(CharSequence csq, int start, int end) {
+				return this; }
+			@Override public Appendable append(char c) { return this; }
+		}, values, context), "Failure fault");
+
+		UncheckedIOException failure = new UncheckedIOException(new IOException("Render"));
+		assertSame(failure, assertThrows(UncheckedIOException.class, () -> Text.textEx(
+				new Sink(), new Object[] { new Failing(failure) }, context)),
+				"Render failure fault");
+	}
+
+	@Test void benchmark() {
+		if (NOBENCH) return;
+		Child child = new Child();
+		Primitives primitives = new Primitives();
+		int length = 0;
+		for (int round = 0; round != 5; ++round) {
+			long start = System.nanoTime();
+			for (int index = 0; index != 100000; ++index)
+				length += Text.textEx(child).length() + Text.textEx(primitives).length();
+			System.out.println("textEx: " + Ticker.toStringEx(System.nanoTime() - start)); }
+		assertTrue(length > 0, "Length fault");
+	}
+
+	/** Поток символов, считающий порции записи. */
+	private static class Sink implements Appendable {
+		final StringBuilder text = new StringBuilder();
+		int parts;
+		@Override public Appendable append(CharSequence csq) {
+			++parts; text.append(csq); return this; }
+		@Override public Appendable append(CharSequence csq, int start, int end) {
+			++parts; text.append(csq, start, end); return this; }
+		@Override public Appendable append(char c) { ++parts; text.append(c); return this; }
+	}
+
+	/** Объект, чей toString падает с заданным исключением. */
+	private static class Failing {
+		private final RuntimeException failure;
+		Failing(RuntimeException failure) { this.failure = failure; }
+		@Override public String toString() { throw failure; } }
+
+	private static class Leaf {
+		private int value = 7;
+		private String name = "leaf"; }
+
+	private static class Base {
+		private static int ignored = 1;
+		protected long id = 42;
+		private Leaf leaf = new Leaf(); }
+
+	private static class Child extends Base {
+		private List<Integer> list = Arrays.asList(1, 2, 3);
+		private Leaf[] leaves = { new Leaf(), null };
+		private Thread.State state = Thread.State.NEW;
+		private Object empty = new Object(); }
+
+	private static class Primitives {
+		private boolean flag = true;
+		private byte bits = -3;
+		private short small = 300;
+		private char letter = 'z';
+		private int number = -17;
+		private long big = 1L << 40;
+		private float ratio = 0.1f;
+		private double exact = 1e-7;
+		private char[] letters = { 'a', 'b' };
+		private boolean[] flags = { true, false };
+		private byte[] bytes = { 1, -1 };
+		private short[] shorts = { 2 };
+		private long[] longs = { 3, 4 };
+		private float[] floats = { 1.5f };
+		private double[] doubles = { 2.25, Double.NaN };
+		private int[][] matrix = { { 1, 2 }, { 3 } }; }
+
+	private static class Node {
+		private String name;
+		private Node next;
+		Node(String name) { this.name = name; } }
+
+	private static class Named {
+		private int hidden = 5;
+		@Override public String toString() { return "named"; } }
+
+	private static class Inherited extends Named {
+		private int own = 6; }
+}
+
+